@@ -0,0 +1,38 @@
+/**
+ * @author Daniel Gil
+ */
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Programa principal dos benchmarks.
+ * <p>
+ * Executa os benchmarks (em modo de débito, operações por segundo, conforme as
+ * anotações de cada classe) sempre com o profiler de GC, que reporta a taxa de
+ * alocação (`gc.alloc.rate.norm`, bytes por operação). Aceita as opções da
+ * linha de comando do JMH, por exemplo:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar PieceMoves -p scenario=endgame
+ * </pre>
+ */
+public class BenchmarkRunner {
+    /**
+     * Método principal.
+     *
+     * @param args As opções do JMH (filtro de benchmarks, parâmetros, etc.).
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * @author Daniel Gil
+ */
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class ChessMatchBenchmark
+ * <p>
+ * Mede as operações públicas de {@link ChessMatch} nas posições fixas de
+ * {@link Positions}:
+ * <ul>
+ * <li>{@link ChessMatch#performChessMove(ChessPosition, ChessPosition)} com um
+ * movimento legal de cada posição, o que inclui os testes de xeque e de
+ * xeque-mate feitos no fim de cada jogada;</li>
+ * <li>o mesmo para um movimento que dá xeque-mate ({@link Positions#CHECKMATE}),
+ * onde o teste de xeque-mate tem de percorrer todas as respostas;</li>
+ * <li>{@link ChessMatch#doMove(int)} com o mesmo movimento, sem validação nem
+ * teste de xeque-mate (o caminho da pesquisa e do perft);</li>
+ * <li>{@link ChessMatch#getPieces()}.</li>
+ * </ul>
+ * Cada operação mede um par reversível: o movimento seguido da sua anulação
+ * ({@link ChessMatch#undoLastMove()} ou {@link ChessMatch#undoMove()}), que repõe
+ * exatamente a posição. Assim a posição é construída uma única vez por execução
+ * ({@link Level#Trial}), e nem o tempo nem a alocação da construção entram nos
+ * resultados (uma preparação por invocação, {@link Level#Invocation}, dominaria
+ * operações tão curtas).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+        public String scenario;
+
+        /// move, source e target o primeiro movimento legal da posição do cenário.
+        ChessMatch chessMatch;
+        int move;
+        ChessPosition source;
+        ChessPosition target;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            chessMatch = Positions.create(scenario);
+            int[] moves = new int[Move.MAX_MOVES];
+            int count = chessMatch.generateLegalMoves(moves);
+            int move = moves[0];
+            // evita as promoções: performChessMove promove sempre para Rainha
+            for (int i = 0; i < count && Move.isPromotion(move); i++) {
+                move = moves[i];
+            }
+            this.move = move;
+            String notation = Move.toString(move);
+            source = new ChessPosition(notation.charAt(0), notation.charAt(1) - '0');
+            target = new ChessPosition(notation.charAt(2), notation.charAt(3) - '0');
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CheckmateState {
+
+        ChessMatch chessMatch;
+        final ChessPosition source = new ChessPosition('d', 8);
+        final ChessPosition target = new ChessPosition('h', 4);
+
+        @Setup(Level.Trial)
+        public void setup() {
+            chessMatch = Positions.create(Positions.CHECKMATE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PiecesState {
+
+        @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+        public String scenario;
+
+        ChessMatch chessMatch;
+
+        @Setup
+        public void setup() {
+            chessMatch = Positions.create(scenario);
+        }
+    }
+
+    @Benchmark
+    public ChessPiece performChessMove(MoveState state) {
+        ChessPiece captured = state.chessMatch.performChessMove(state.source, state.target);
+        state.chessMatch.undoLastMove();
+        return captured;
+    }
+
+    @Benchmark
+    public boolean performCheckmatingMove(CheckmateState state) {
+        state.chessMatch.performChessMove(state.source, state.target);
+        boolean checkMate = state.chessMatch.getCheckMate();
+        state.chessMatch.undoLastMove();
+        return checkMate;
+    }
+
+    @Benchmark
+    public long doMove(MoveState state) {
+        state.chessMatch.doMove(state.move);
+        long hash = state.chessMatch.getHash();
+        state.chessMatch.undoMove();
+        return hash;
+    }
+
+    @Benchmark
+    public ChessPiece[][] getPieces(PiecesState state) {
+        return state.chessMatch.getPieces();
+    }
+}
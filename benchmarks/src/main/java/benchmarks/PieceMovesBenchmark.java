@@ -0,0 +1,73 @@
+/**
+ * @author Daniel Gil
+ */
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class PieceMovesBenchmark
+ * <p>
+ * Mede {@link ChessPiece#possibleMoves()} de cada classe de {@code chess.pieces}
+ * nas posições fixas de {@link Positions}. Cada invocação calcula os movimentos
+ * possíveis de todas as peças da classe indicada presentes no tabuleiro (de
+ * ambas as cores).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String scenario;
+
+    @Param({"Pawn", "Knight", "Bishop", "Rook", "Queen", "King"})
+    public String piece;
+
+    /// pieces as peças da classe indicada presentes no tabuleiro do cenário.
+    private ChessPiece[] pieces;
+
+    @Setup
+    public void setup() {
+        ChessMatch chessMatch = Positions.create(scenario);
+        List<ChessPiece> list = new ArrayList<>();
+        for (ChessPiece[] row : chessMatch.getPieces()) {
+            for (ChessPiece p : row) {
+                if (p != null && p.getClass().getSimpleName().equals(piece)) {
+                    list.add(p);
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            throw new IllegalStateException("No " + piece + " on the board in scenario " + scenario);
+        }
+        pieces = list.toArray(new ChessPiece[0]);
+    }
+
+    @Benchmark
+    public void possibleMoves(Blackhole bh) {
+        for (ChessPiece p : pieces) {
+            bh.consume(p.possibleMoves());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * @author Daniel Gil
+ */
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+
+/**
+ * Class Positions
+ * <p>
+ * Posições fixas utilizadas pelos benchmarks, construídas a partir da posição
+ * inicial através da API pública de {@link ChessMatch}, para que cada execução
+ * meça sempre as mesmas posições.
+ */
+public final class Positions {
+
+    /// Cenários
+    /// OPENING Ruy Lopez após o roque das brancas (5.O-O).
+    /// MIDDLEGAME Ruy Lopez fechada, variante Chigorin, após 13.cxd4.
+    /// ENDGAME final de Rei, Rainha, Torre, Bispo e Peão contra Rei, Cavalo e três
+    /// Peões, obtido do meio-jogo por uma série de trocas (inclui todas as classes de peças).
+    /// CHECKMATE posição anterior ao mate do louco (1.f3 e5 2.g4, seguido de Dh4#).
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+    public static final String CHECKMATE = "checkmate";
+
+    private static final String OPENING_MOVES = "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1";
+    private static final String MIDDLEGAME_MOVES = OPENING_MOVES
+            + " f8e7 f1e1 b7b5 a4b3 d7d6 c2c3 e8g8 h2h3 c6a5 b3c2 c7c5 d2d4 d8c7 b1d2 c5d4 c3d4";
+    private static final String ENDGAME_MOVES = MIDDLEGAME_MOVES
+            + " f6e4 f3e5 c7c2 e5f7 c2d2 e1e4 d2f2 g1f2 c8h3 e4e7 f8f7 e7f7 h3g2 f7g7"
+            + " g8g7 f2g2 g7h8 d1g4 b5b4 a1b1 a8b8 g2f1 b4b3 a2b3 b8b3 g4e6 b3b2 c1b2";
+    private static final String CHECKMATE_MOVES = "f2f3 e7e5 g2g4";
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private Positions() {
+    }
+
+    /**
+     * Method create
+     * Cria uma nova partida na posição do cenário indicado.
+     *
+     * @param scenario O nome do cenário ({@link #OPENING}, {@link #MIDDLEGAME}, {@link #ENDGAME} ou {@link #CHECKMATE}).
+     * @return Uma partida nova, na posição do cenário.
+     * @throws IllegalArgumentException Se o cenário não existir.
+     */
+    public static ChessMatch create(String scenario) {
+        switch (scenario) {
+            case OPENING:
+                return play(OPENING_MOVES);
+            case MIDDLEGAME:
+                return play(MIDDLEGAME_MOVES);
+            case ENDGAME:
+                return play(ENDGAME_MOVES);
+            case CHECKMATE:
+                return play(CHECKMATE_MOVES);
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    /**
+     * Method play
+     * Joga uma sequência de movimentos em notação de coordenadas (e.g., "e2e4")
+     * com {@link ChessMatch#performChessMove(ChessPosition, ChessPosition)}.
+     */
+    private static ChessMatch play(String moves) {
+        ChessMatch chessMatch = new ChessMatch();
+        for (String move : moves.split(" ")) {
+            chessMatch.performChessMove(source(move), target(move));
+        }
+        return chessMatch;
+    }
+
+    private static ChessPosition source(String move) {
+        return new ChessPosition(move.charAt(0), move.charAt(1) - '0');
+    }
+
+    private static ChessPosition target(String move) {
+        return new ChessPosition(move.charAt(2), move.charAt(3) - '0');
+    }
+}
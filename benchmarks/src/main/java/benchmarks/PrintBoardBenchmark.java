@@ -0,0 +1,80 @@
+/**
+ * @author Daniel Gil
+ */
+package benchmarks;
+
+import application.UI;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class PrintBoardBenchmark
+ * <p>
+ * Mede a renderização do tabuleiro por {@link UI#printBoard(ChessPiece[][])} e
+ * {@link UI#printBoard(ChessPiece[][], boolean[][])}. A saída padrão é
+ * redirecionada para um stream nulo durante a medição, para medir apenas a
+ * construção do texto e não o terminal.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrintBoardBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String scenario;
+
+    private ChessPiece[][] pieces;
+    private boolean[][] possibleMoves;
+    private PrintStream out;
+
+    @Setup
+    public void setup() {
+        ChessMatch chessMatch = Positions.create(scenario);
+        pieces = chessMatch.getPieces();
+        possibleMoves = new boolean[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                ChessPiece piece = pieces[row][column];
+                if (piece != null && piece.getColor() == chessMatch.getCurrentPlayer()) {
+                    possibleMoves = piece.possibleMoves();
+                }
+            }
+        }
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public void printBoard() {
+        UI.printBoard(pieces);
+    }
+
+    @Benchmark
+    public void printBoardWithPossibleMoves() {
+        UI.printBoard(pieces, possibleMoves);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.io;
+
+import chess.ChessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Class PgnReaderTest
+ * <p>
+ * Testes de {@link PgnReader}: o roque escrito com zeros, as marcas "en
+ * passant" e a recuperação de partidas com erros.
+ */
+class PgnReaderTest {
+
+    private final List<PgnGame> games = new ArrayList<>();
+    private final List<ChessException> errors = new ArrayList<>();
+
+    private PgnReader read(String pgn) throws IOException {
+        PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(pgn.getBytes(StandardCharsets.US_ASCII))));
+        reader.read(games::add, errors::add);
+        return reader;
+    }
+
+    @Test
+    void castlingWithZeros() throws IOException {
+        read("1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. 0-0 Nf6 1-0\n\n"
+                + "1. d4 d5 2. Nc3 Nc6 3. Bf4 Bf5 4. Qd2 Qd7 5. 0-0-0 0-0-0 *\n");
+
+        assertEquals(List.of(), errors);
+        assertEquals(2, games.size());
+        assertEquals("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQ1RK1 w kq - 6 5",
+                games.get(0).getChessMatch().toFen());
+        assertEquals("2kr1bnr/pppqpppp/2n5/3p1b2/3P1B2/2N5/PPPQPPPP/2KR1BNR w - - 8 6",
+                games.get(1).getChessMatch().toFen());
+    }
+
+    @Test
+    void castlingWithZerosMatchesLetters() throws IOException {
+        read("1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. 0-0 Nf6 *\n"
+                + "1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O Nf6 *\n");
+
+        assertEquals(2, games.size());
+        assertEquals(games.get(1).getChessMatch().toFen(), games.get(0).getChessMatch().toFen());
+    }
+
+    @Test
+    void enPassantMarksAreIgnored() throws IOException {
+        read("1. e4 Nf6 2. e5 d5 3. exd6 e.p. cxd6 1-0\n"
+                + "1. e4 Nf6 2. e5 d5 3. exd6 ep cxd6 1-0\n"
+                + "1. e4 Nf6 2. e5 d5 3. exd6e.p. cxd6 1-0\n");
+
+        assertEquals(List.of(), errors);
+        assertEquals(3, games.size());
+        for (PgnGame game : games) {
+            assertEquals("rnbqkb1r/pp2pppp/3p1n2/8/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 4",
+                    game.getChessMatch().toFen());
+        }
+    }
+
+    @Test
+    void invalidGamesAreSkipped() throws IOException {
+        PgnReader reader = read("[Event \"illegal\"]\n1. e4 e5 2. Ke3 {Ke3??} Nf6 3. Nf3 0-1\n\n"
+                + "[FEN \"invalid\"]\n*\n\n"
+                + "[Event \"valid\"]\n1. d4 d5 2. c4 1/2-1/2\n\n"
+                + "[Event \"no result\"]\n1. e4 Qxe4\n"
+                + "[Event \"last\"]\n1. e4 1-0\n");
+
+        assertEquals(3, reader.getSkipped());
+        assertEquals(3, errors.size());
+        assertEquals(2, games.size());
+        assertEquals("valid", games.get(0).getTag("Event"));
+        assertEquals(3, games.get(0).getNumber());
+        assertEquals("1/2-1/2", games.get(0).getResult());
+        assertEquals(3, games.get(0).getMoves().length);
+        assertEquals("last", games.get(1).getTag("Event"));
+        assertEquals(5, games.get(1).getNumber());
+        assertEquals(1, games.get(1).getMoves().length);
+    }
+}
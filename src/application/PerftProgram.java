@@ -0,0 +1,62 @@
+/**
+ * @author Daniel Gil
+ */
+package application;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.engine.Perft;
+import chess.engine.TreeWalker;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Programa de linha de comando para executar o perft (ver {@link Perft}).
+ * <p>
+ * Mostra o número de folhas de cada movimento da raiz ("divide"), o total,
+ * o tempo e o número de nós por segundo. Com mais de uma thread, a árvore é
+ * dividida por um {@link TreeWalker}. Utilização:
+ * <pre>
+ * java application.PerftProgram [profundidade] [threads] [FEN]
+ * </pre>
+ * Sem FEN, a posição é a posição inicial; a FEN pode ser passada entre aspas
+ * ou como os restantes argumentos.
+ */
+public class PerftProgram {
+    /**
+     * Método principal.
+     *
+     * @param args A profundidade (por omissão 4), o número de threads (por
+     *             omissão, o número de processadores disponíveis) e a posição em FEN.
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ChessMatch chessMatch = (args.length > 2)
+                ? new ChessMatch(String.join(" ", Arrays.copyOfRange(args, 2, args.length)))
+                : new ChessMatch();
+        Perft perft = new Perft(chessMatch);
+        ObjIntConsumer<Long> print = (count, move) -> System.out.println(Move.toString(move) + ": " + count);
+
+        long start = System.nanoTime();
+        long nodes;
+        if (threads > 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            nodes = perft.divide(depth, new TreeWalker(pool, TreeWalker.DEFAULT_SPLIT_DEPTH), print);
+            pool.shutdown();
+        } else {
+            nodes = perft.divide(depth, print);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println("FEN: " + chessMatch.toFen());
+        System.out.println("Depth: " + depth);
+        System.out.println("Threads: " + threads);
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("NPS: %.0f%n", nodes / (elapsed / 1e9));
+    }
+}
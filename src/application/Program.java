@@ -12,6 +12,14 @@ import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Color;
+import chess.Move;
+import chess.PieceType;
+import chess.engine.LazySmpSearch;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
 
 /**
  * Classe principal para executar o jogo de xadrez no console.
@@ -20,12 +28,34 @@ import chess.ChessPosition;
  * interage com o usuário para obter os movimentos e exibe o estado do jogo
  * no console. Ela também trata exceções específicas do jogo de xadrez e
  * erros de entrada do usuário.
+ * <p>
+ * Opcionalmente, uma das cores é jogada pelo computador ({@link Search}, em
+ * várias threads com {@link LazySmpSearch}):
+ * <pre>
+ * java application.Program [white|black] [segundos por lance | minutos+incremento] [threads]
+ * </pre>
+ * Com um relógio (e.g., `5+3`: 5 minutos e 3 segundos de incremento por lance),
+ * o tempo de cada lance do computador é distribuído a partir do tempo restante
+ * ({@link SearchLimits#clock(long, long, int)}). Enquanto o jogador escolhe o
+ * seu lance, o computador continua a pesquisar a posição em segundo plano
+ * ({@link LazySmpSearch#ponder(ChessMatch)}).
  */
 public class Program {
+    /// Variareis
+    /// ENGINE_DEPTH profundidade máxima da pesquisa do computador (o limite efetivo é o tempo).
+    /// ENGINE_MILLIS tempo por lance do computador, por omissão.
+    /// TABLE_MB tamanho da tabela de transposição do computador.
+    private static final int ENGINE_DEPTH = 64;
+    private static final long ENGINE_MILLIS = 3000;
+    private static final long TABLE_MB = 64;
+
     /**
      * Método principal que inicia e controla a execução do jogo de xadrez.
      *
-     * @param args Os argumentos da linha de comando (não utilizados neste programa).
+     * @param args A cor jogada pelo computador ("white" ou "black"), opcional, o
+     *             tempo por lance do computador em segundos (por omissão 3) ou o
+     *             relógio do computador ("minutos+incremento") e o número de
+     *             threads (por omissão, o número de processadores disponíveis).
      */
     public static void main(String[] args) {
 
@@ -33,10 +63,50 @@ public class Program {
         ChessMatch chessMatch = new ChessMatch();
         List<ChessPiece> capturedPieces = new ArrayList<>();
 
-        while (!chessMatch.getCheckMate()) {
+        Color engineColor = (args.length > 0) ? parseColor(args[0]) : null;
+        String engineTime = (args.length > 1) ? args[1] : null;
+        boolean engineClock = engineTime != null && engineTime.contains("+");
+        long engineMillis = (engineTime == null) ? ENGINE_MILLIS
+                : engineClock ? (long) (Double.parseDouble(engineTime.substring(0, engineTime.indexOf('+'))) * 60_000)
+                : (long) (Double.parseDouble(engineTime) * 1000);
+        long engineIncrement = engineClock
+                ? (long) (Double.parseDouble(engineTime.substring(engineTime.indexOf('+') + 1)) * 1000) : 0;
+        int engineThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        LazySmpSearch search = (engineColor != null)
+                ? new LazySmpSearch(new TranspositionTable(TABLE_MB), engineThreads) : null;
+        String engineLine = null;
+
+        while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
             try {
                 UI.clearScreen();
                 UI.printMatch(chessMatch, capturedPieces);
+                if (engineLine != null) {
+                    System.out.println("Engine: " + engineLine);
+                }
+
+                if (chessMatch.getCurrentPlayer() == engineColor) {
+                    System.out.println("Thinking...");
+                    SearchLimits limits = engineClock ? SearchLimits.clock(engineMillis, engineIncrement, 0)
+                            : SearchLimits.millis(engineMillis);
+                    long start = System.currentTimeMillis();
+                    SearchResult result = search.search(chessMatch, limits.withDepth(ENGINE_DEPTH));
+                    if (result == null || result.getBestMove() == 0) {
+                        break;
+                    }
+                    if (engineClock) {
+                        engineMillis += engineIncrement - (System.currentTimeMillis() - start);
+                    }
+                    ChessPiece capturedPiece = playMove(chessMatch, result.getBestMove());
+                    if (capturedPiece != null) {
+                        capturedPieces.add(capturedPiece);
+                    }
+                    engineLine = result.toString();
+                    continue;
+                }
+
+                if (search != null) {
+                    search.ponder(chessMatch);
+                }
 
                 System.out.println();
                 System.out.print("Source: ");
@@ -49,6 +119,9 @@ public class Program {
                 System.out.println();
                 System.out.print("Target: ");
                 ChessPosition target = UI.readChessPosition(sc);
+                if (search != null) {
+                    search.stopPondering();
+                }
 
                 ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
 
@@ -72,5 +145,53 @@ public class Program {
         UI.clearScreen();
         UI.printMatch(chessMatch, capturedPieces);
         sc.close();
+        if (search != null) {
+            search.close();
+        }
+    }
+
+    /**
+     * Method parseColor
+     * Interpreta a cor jogada pelo computador ("white"/"w" ou "black"/"b").
+     *
+     * @throws IllegalArgumentException Se o argumento não for uma cor.
+     */
+    private static Color parseColor(String arg) {
+        switch (arg.toLowerCase()) {
+            case "white":
+            case "w":
+                return Color.White;
+            case "black":
+            case "b":
+                return Color.Black;
+            default:
+                throw new IllegalArgumentException("Invalid engine color: " + arg);
+        }
+    }
+
+    /**
+     * Method playMove
+     * Joga um movimento codificado com {@link Move} através de
+     * {@link ChessMatch#performChessMove(ChessPosition, ChessPosition)}, escolhendo
+     * a peça da promoção indicada no movimento.
+     *
+     * @return A peça capturada (pode ser `null`).
+     */
+    private static ChessPiece playMove(ChessMatch chessMatch, int move) {
+        ChessPiece capturedPiece = chessMatch.performChessMove(toChessPosition(Move.from(move)),
+                toChessPosition(Move.to(move)));
+        PieceType promotion = Move.promotion(move);
+        if (chessMatch.getPromoted() != null && promotion != null && promotion != PieceType.Queen) {
+            chessMatch.replacePromotedPiece(String.valueOf("PNBRQK".charAt(promotion.ordinal())));
+        }
+        return capturedPiece;
+    }
+
+    /**
+     * Method toChessPosition
+     * Converte o número de uma casa (0 a 63, ver {@link chess.BitBoard}) na {@link ChessPosition} correspondente.
+     */
+    private static ChessPosition toChessPosition(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
     }
 }
\ No newline at end of file
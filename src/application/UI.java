@@ -95,8 +95,8 @@ public class UI {
      * atual do jogo e uma lista de {@link ChessPiece} que foram capturadas.
      * Imprime o tabuleiro utilizando o método {@link #printBoard(ChessPiece[][])},
      * as peças capturadas através do método {@link #printCapturedPieces(List)},
-     * o número do turno atual e indica se há xeque ou xeque-mate. Em caso de xeque-mate,
-     * imprime o vencedor e encerra o sistema.
+     * o número do turno atual e indica se há xeque, xeque-mate ou empate. Em caso de xeque-mate,
+     * imprime o vencedor e encerra o sistema; em caso de empate, imprime o motivo.
      *
      * @param chessMatch A instância de {@link ChessMatch} contendo o estado atual do jogo.
      * @param captured   Uma lista de {@link ChessPiece} que foram capturadas durante a partida.
@@ -108,7 +108,11 @@ public class UI {
         System.out.println();
         System.out.println("Turn: " + chessMatch.getTurn());
 
-        if (!chessMatch.getCheckMate()) {
+        if (chessMatch.getDraw()) {
+            System.out.println("DRAW!");
+            System.out.println(chessMatch.isStalemate() ? "Stalemate"
+                    : chessMatch.isFiftyMoveRule() ? "Fifty-move rule" : "Threefold repetition");
+        } else if (!chessMatch.getCheckMate()) {
             System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
             if (chessMatch.getCheck()) {
                 System.out.println("CHECK!");
@@ -120,6 +120,35 @@ public class Board {
         piece.position = position;
     }
 
+    /**
+     * Metodo putPiece
+     * Coloca uma peça na posição especificada sem verificações, associando-lhe
+     * a instância de {@link Position} indicada. Destina-se às subclasses que
+     * validam as casas à sua maneira e reutilizam as mesmas posições, para não
+     * criar objetos a cada movimento.
+     *
+     * @param piece    A peça a ser colocada no tabuleiro.
+     * @param position A posição (existente e vazia) onde a peça será colocada.
+     */
+    protected void putPiece(Piece piece, Position position) {
+        pieces[position.getRow()][position.getColumn()] = piece;
+        piece.position = position;
+    }
+
+    /**
+     * Metodo clearPiece
+     * Retira a peça da posição especificada sem verificações, desassociando a sua posição.
+     *
+     * @param position A posição (existente) a esvaziar.
+     */
+    protected void clearPiece(Position position) {
+        Piece aux = pieces[position.getRow()][position.getColumn()];
+        if (aux != null) {
+            aux.position = null;
+            pieces[position.getRow()][position.getColumn()] = null;
+        }
+    }
+
     /**
      * Metodo removePiece
      * Remove uma peça do tabuleiro na posição especificada.
@@ -0,0 +1,300 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+/**
+ * Class Attacks
+ * <p>
+ * Tabelas de ataque pré-calculadas, uma máscara de bits por casa (e por cor,
+ * no caso do Peão), utilizadas pelas peças na geração dos movimentos normais.
+ * As tabelas são calculadas uma única vez, ao carregar a classe; cada consulta
+ * é apenas uma leitura de array.
+ * <p>
+ * As peças deslizantes (Torre, Bispo e Rainha) utilizam "magic bitboards": as
+ * peças que bloqueiam os raios são isoladas com uma máscara, multiplicadas por
+ * um número mágico e deslocadas, obtendo-se diretamente o índice da tabela de
+ * ataques daquela casa. Cada consulta custa uma multiplicação, um deslocamento
+ * e uma leitura, independentemente do comprimento dos raios.
+ * <p>
+ * As casas seguem a numeração de {@link BitBoard} (`row * 8 + column`).
+ */
+public final class Attacks {
+
+    /// Variareis
+    /// KNIGHT casas atacadas por um Cavalo em cada casa.
+    /// KING casas atacadas por um Rei em cada casa.
+    /// PAWN casas atacadas (capturas) por um Peão, indexadas por [Color#ordinal()] e casa.
+    /// PAWN_PUSH casa à frente de um Peão, indexada por [Color#ordinal()] e casa.
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] PAWN_PUSH = new long[2][64];
+
+    /// Variareis dos magic bitboards
+    /// ROOK_MASK / BISHOP_MASK casas dos raios que podem bloquear o movimento (sem as bordas finais).
+    /// ROOK_SHIFT / BISHOP_SHIFT deslocamento (`64 - bits`) aplicado ao produto mágico.
+    /// ROOK_TABLE / BISHOP_TABLE ataques de cada casa, indexados pelo produto mágico da ocupação.
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    /// Variareis de alinhamento
+    /// BETWEEN casas estritamente entre duas casas alinhadas (linha, coluna ou diagonal), ou `0`.
+    /// LINE linha completa (de borda a borda) que passa por duas casas alinhadas, ou `0`.
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    /**
+     * Números mágicos para a numeração de casas de {@link BitBoard}
+     * (a8 = 0, h1 = 63), encontrados por pesquisa aleatória.
+     */
+    private static final long[] ROOK_MAGIC = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L,
+            0x0880100008000480L, 0x4200100420080200L, 0x8100020100080400L,
+            0x0200040110886200L, 0x0200008040220411L, 0x0404800084400220L,
+            0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L,
+            0x0442000102105084L, 0x9080010020804100L, 0x0040404000201009L,
+            0x0000808010002009L, 0x2200090021D00100L, 0x0008008008040080L,
+            0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L,
+            0x1000100080080080L, 0x0442000A00049020L, 0x2100040080020080L,
+            0x0800120400900148L, 0x0010040A00128541L, 0x2800804000800030L,
+            0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L,
+            0x0182085882000401L, 0x0220204000808000L, 0x2860100040024022L,
+            0x0001002004110040L, 0x99101042000A0020L, 0x0004080004008080L,
+            0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L,
+            0x0801100280080480L, 0x0242009008200600L, 0x1002000489500200L,
+            0x0040800200010080L, 0x0091800041000080L, 0x0000209300488001L,
+            0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L,
+            0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGIC = {
+            0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L,
+            0x08281A0520000408L, 0x0001104001000400L, 0x0018901008048400L,
+            0x00040A0210245280L, 0x000200210808A402L, 0x9140048410821200L,
+            0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+            0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L,
+            0x0080084A08040204L, 0x0040E2A80811244CL, 0x2505022008008108L,
+            0x0430220100420040L, 0x010A040420220040L, 0x1105000290400000L,
+            0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+            0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L,
+            0x1004080080220040L, 0x0001001011004024L, 0x0010044000805040L,
+            0x0914041200820100L, 0x0004821012821480L, 0x0024040500C05021L,
+            0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+            0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L,
+            0x8081110600002E00L, 0x2842101105000801L, 0x1100809008001025L,
+            0x00020202221C0400L, 0x0422014022009020L, 0x0210046102100C00L,
+            0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+            0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L,
+            0x0400200042021100L, 0x00004204850400C0L, 0x0200100410A42102L,
+            0x1040020801210102L, 0x0805040410420000L, 0x2884804130100200L,
+            0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+            0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L,
+            0x0402020801010201L
+    };
+
+    static {
+        int[][] knightOffsets = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        int[][] kingOffsets = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+            int column = square & 7;
+            KNIGHT[square] = offsets(row, column, knightOffsets);
+            KING[square] = offsets(row, column, kingOffsets);
+            // Peões brancos avançam para a linha 0, peões pretos para a linha 7
+            PAWN[Color.White.ordinal()][square] = offsets(row, column, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN[Color.Black.ordinal()][square] = offsets(row, column, new int[][]{{1, -1}, {1, 1}});
+            PAWN_PUSH[Color.White.ordinal()][square] = offsets(row, column, new int[][]{{-1, 0}});
+            PAWN_PUSH[Color.Black.ordinal()][square] = offsets(row, column, new int[][]{{1, 0}});
+
+            ROOK_MASK[square] = relevantOccupancy(row, column, ROOK_DIRECTIONS);
+            BISHOP_MASK[square] = relevantOccupancy(row, column, BISHOP_DIRECTIONS);
+            ROOK_SHIFT[square] = 64 - Long.bitCount(ROOK_MASK[square]);
+            BISHOP_SHIFT[square] = 64 - Long.bitCount(BISHOP_MASK[square]);
+            ROOK_TABLE[square] = slidingTable(square, ROOK_MASK[square], ROOK_MAGIC[square], ROOK_SHIFT[square],
+                    ROOK_DIRECTIONS);
+            BISHOP_TABLE[square] = slidingTable(square, BISHOP_MASK[square], BISHOP_MAGIC[square],
+                    BISHOP_SHIFT[square], BISHOP_DIRECTIONS);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long bitA = 1L << a;
+                long bitB = 1L << b;
+                for (int[][] directions : new int[][][]{ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+                    if ((slidingAttacks(a, 0L, directions) & bitB) != 0) {
+                        BETWEEN[a][b] = slidingAttacks(a, bitB, directions) & slidingAttacks(b, bitA, directions);
+                        LINE[a][b] = (slidingAttacks(a, 0L, directions) & slidingAttacks(b, 0L, directions))
+                                | bitA | bitB;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private Attacks() {
+    }
+
+    /**
+     * Method offsets
+     * Calcula a máscara das casas alcançadas a partir de uma casa com os
+     * deslocamentos indicados, descartando as que ficam fora do tabuleiro.
+     */
+    private static long offsets(int row, int column, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = column + offset[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                mask |= 1L << (r * 8 + c);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Method relevantOccupancy
+     * Calcula as casas dos raios que podem bloquear uma peça deslizante. A última
+     * casa de cada raio (junto à borda) é excluída, porque uma peça nessa casa
+     * nunca altera o resultado.
+     */
+    private static long relevantOccupancy(int row, int column, int[][] directions) {
+        long mask = 0L;
+        for (int[] d : directions) {
+            int r = row + d[0];
+            int c = column + d[1];
+            while (r + d[0] >= 0 && r + d[0] < 8 && c + d[1] >= 0 && c + d[1] < 8) {
+                mask |= 1L << (r * 8 + c);
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Method slidingAttacks
+     * Calcula os ataques de uma peça deslizante percorrendo os raios casa a casa.
+     * Utilizado apenas na construção das tabelas.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long mask = 0L;
+        for (int[] d : directions) {
+            int r = (square >>> 3) + d[0];
+            int c = (square & 7) + d[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << (r * 8 + c);
+                mask |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Method slidingTable
+     * Preenche a tabela de ataques de uma casa, enumerando todos os subconjuntos
+     * da máscara de bloqueio (técnica "carry-rippler").
+     */
+    private static long[] slidingTable(int square, long mask, long magic, int shift, int[][] directions) {
+        long[] table = new long[1 << (64 - shift)];
+        long subset = 0L;
+        do {
+            table[(int) ((subset * magic) >>> shift)] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return table;
+    }
+
+    /**
+     * @return As casas atacadas por um Cavalo na casa indicada.
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return As casas atacadas por um Rei na casa indicada.
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return As casas atacadas (em diagonal) por um Peão da cor indicada na casa indicada.
+     */
+    public static long pawn(Color color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return A casa imediatamente à frente de um Peão da cor indicada (ou `0` na última linha).
+     */
+    public static long pawnPush(Color color, int square) {
+        return PAWN_PUSH[color.ordinal()][square];
+    }
+
+    /**
+     * @param square   A casa da Torre.
+     * @param occupied A ocupação do tabuleiro.
+     * @return As casas atacadas por uma Torre, até à primeira peça de cada raio (inclusive).
+     */
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square]) >>> ROOK_SHIFT[square])];
+    }
+
+    /**
+     * @param square   A casa do Bispo.
+     * @param occupied A ocupação do tabuleiro.
+     * @return As casas atacadas por um Bispo, até à primeira peça de cada raio (inclusive).
+     */
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square])
+                >>> BISHOP_SHIFT[square])];
+    }
+
+    /**
+     * @param square   A casa da Rainha.
+     * @param occupied A ocupação do tabuleiro.
+     * @return As casas atacadas por uma Rainha: a união dos ataques de Torre e de Bispo.
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * @return As casas estritamente entre `a` e `b`, se estiverem alinhadas; `0` caso contrário.
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return A linha completa que passa por `a` e `b`, se estiverem alinhadas; `0` caso contrário.
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+}
@@ -0,0 +1,375 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+import boardgame.Board;
+import boardgame.BoardException;
+import boardgame.Piece;
+import boardgame.Position;
+
+/**
+ * Class BitBoard
+ * <p>
+ * Tabuleiro de xadrez 8x8 representado por bitboards: um `long` de 64 bits por
+ * cor e tipo de peça, mais as máscaras de ocupação de cada cor e do tabuleiro
+ * inteiro. Cada casa corresponde a um bit, com o índice `row * 8 + column`
+ * (a casa a8 é o bit 0 e a casa h1 é o bit 63), seguindo a mesma orientação
+ * de {@link Position}.
+ * <p>
+ * A matriz de {@link Piece} da superclasse {@link Board} continua a ser mantida
+ * como vista de compatibilidade: {@link #placePiece(ChessPiece, int)} e
+ * {@link #removePiece(int)} (e as versões com {@link Position}) atualizam as
+ * duas representações em conjunto.
+ */
+public class BitBoard extends Board {
+
+    /// POSITIONS a posição de cada casa, partilhada por todas as peças e tabuleiros.
+    private static final Position[] POSITIONS = new Position[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new Position(square >>> 3, square & 7);
+        }
+    }
+
+    /// Variareis
+    /// pieces um bitboard por cor e tipo de peça, indexado por `color * 6 + type`.
+    /// colors máscara de ocupação de cada cor, indexada por [Color#ordinal()].
+    /// occupied máscara de ocupação de todas as peças.
+    /// squares peça em cada casa, indexada pelo número da casa (sem verificação de limites).
+    /// hash parte da chave de Zobrist relativa às peças, atualizada a cada colocação ou remoção.
+    /// middlegame e endgame soma dos valores de material e peça-casa das peças
+    /// ([PieceSquareTables]), positivos para as brancas e negativos para as pretas.
+    /// phase soma dos pesos das peças na fase do jogo ([PieceSquareTables#phase(PieceType)]).
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final ChessPiece[] squares = new ChessPiece[64];
+    private long hash;
+    private int middlegame;
+    private int endgame;
+    private int phase;
+
+    /**
+     * Construtor
+     * inicializa um tabuleiro de xadrez 8x8 vazio.
+     */
+    public BitBoard() {
+        super(8, 8);
+    }
+
+    /**
+     * Getters
+     * <p>
+     * Retorna o bitboard das peças da cor e do tipo especificados.
+     */
+    public long pieces(Color color, PieceType type) {
+        return pieces[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return Uma cópia dos bitboards das peças, indexados por `color * 6 + type`.
+     */
+    long[] copyPieces() {
+        return pieces.clone();
+    }
+
+    public long occupancy(Color color) {
+        return colors[color.ordinal()];
+    }
+
+    public long occupancy() {
+        return occupied;
+    }
+
+    /**
+     * @return A chave de Zobrist das peças no tabuleiro ({@link Zobrist#piece(Color, PieceType, int)}).
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return O valor de meio-jogo das peças no tabuleiro, do ponto de vista das brancas.
+     */
+    public int getMiddlegameScore() {
+        return middlegame;
+    }
+
+    /**
+     * @return O valor de final das peças no tabuleiro, do ponto de vista das brancas.
+     */
+    public int getEndgameScore() {
+        return endgame;
+    }
+
+    /**
+     * @return A fase do jogo (de {@link PieceSquareTables#MAX_PHASE} no início a 0), sem limite após promoções.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Method kingSquare
+     * Retorna a casa do Rei da cor indicada, lida diretamente do seu bitboard.
+     *
+     * @param color A cor do Rei.
+     * @return A casa do Rei (0 a 63), ou `64` se não houver Rei dessa cor no tabuleiro.
+     */
+    public int kingSquare(Color color) {
+        return Long.numberOfTrailingZeros(pieces[color.ordinal() * 6 + PieceType.King.ordinal()]);
+    }
+
+    /**
+     * Method attackersTo
+     * Retorna as peças (de ambas as cores) que atacam a casa indicada, dada uma
+     * ocupação do tabuleiro.
+     * <p>
+     * A consulta parte da casa alvo: uma peça de um dado tipo ataca a casa se
+     * estiver numa das casas que uma peça desse tipo atacaria a partir do alvo
+     * (saltos de Cavalo e de Rei, diagonais de Peão e raios de Torre e Bispo,
+     * obtidos de {@link Attacks}).
+     *
+     * @param square   A casa alvo (0 a 63).
+     * @param occupied A ocupação a considerar para os raios das peças deslizantes.
+     * @return A máscara das casas das peças que atacam a casa alvo.
+     */
+    public long attackersTo(int square, long occupied) {
+        int white = Color.White.ordinal() * 6;
+        int black = Color.Black.ordinal() * 6;
+        long knights = pieces[white + PieceType.Knight.ordinal()] | pieces[black + PieceType.Knight.ordinal()];
+        long kings = pieces[white + PieceType.King.ordinal()] | pieces[black + PieceType.King.ordinal()];
+        long queens = pieces[white + PieceType.Queen.ordinal()] | pieces[black + PieceType.Queen.ordinal()];
+        long bishops = pieces[white + PieceType.Bishop.ordinal()] | pieces[black + PieceType.Bishop.ordinal()] | queens;
+        long rooks = pieces[white + PieceType.Rook.ordinal()] | pieces[black + PieceType.Rook.ordinal()] | queens;
+        return (Attacks.pawn(Color.White, square) & pieces[black + PieceType.Pawn.ordinal()])
+                | (Attacks.pawn(Color.Black, square) & pieces[white + PieceType.Pawn.ordinal()])
+                | (Attacks.knight(square) & knights)
+                | (Attacks.king(square) & kings)
+                | (Attacks.bishop(square, occupied) & bishops)
+                | (Attacks.rook(square, occupied) & rooks);
+    }
+
+    /**
+     * Method isAttacked
+     * Verifica se a casa indicada é atacada por alguma peça da cor indicada.
+     *
+     * @param square   A casa alvo (0 a 63).
+     * @param attacker A cor das peças atacantes.
+     * @return `true` se a casa for atacada; `false` caso contrário.
+     */
+    public boolean isAttacked(int square, Color attacker) {
+        return isAttacked(square, attacker, occupied);
+    }
+
+    /**
+     * Method isAttacked
+     * Verifica se a casa indicada é atacada por alguma peça da cor indicada,
+     * considerando uma ocupação alternativa para os raios (por exemplo, sem o
+     * Rei que se está a mover).
+     *
+     * @param square   A casa alvo (0 a 63).
+     * @param attacker A cor das peças atacantes.
+     * @param occupied A ocupação a considerar para os raios das peças deslizantes.
+     * @return `true` se a casa for atacada; `false` caso contrário.
+     */
+    public boolean isAttacked(int square, Color attacker, long occupied) {
+        int base = attacker.ordinal() * 6;
+        Color defender = (attacker == Color.White) ? Color.Black : Color.White;
+        long queens = pieces[base + PieceType.Queen.ordinal()];
+        return (Attacks.pawn(defender, square) & pieces[base + PieceType.Pawn.ordinal()]) != 0
+                || (Attacks.knight(square) & pieces[base + PieceType.Knight.ordinal()]) != 0
+                || (Attacks.king(square) & pieces[base + PieceType.King.ordinal()]) != 0
+                || (Attacks.bishop(square, occupied) & (pieces[base + PieceType.Bishop.ordinal()] | queens)) != 0
+                || (Attacks.rook(square, occupied) & (pieces[base + PieceType.Rook.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * Method checkers
+     * Retorna as peças adversárias que dão xeque ao Rei da cor indicada.
+     *
+     * @param color A cor do Rei.
+     * @return A máscara das casas das peças que atacam o Rei.
+     */
+    public long checkers(Color color) {
+        Color opponent = (color == Color.White) ? Color.Black : Color.White;
+        return attackersTo(kingSquare(color), occupied) & colors[opponent.ordinal()];
+    }
+
+    /**
+     * Method pinned
+     * Retorna as peças da cor indicada que estão cravadas (pinned) contra o seu
+     * Rei: peças que são a única peça entre o Rei e uma Torre, Bispo ou Rainha
+     * adversária alinhada com ele.
+     *
+     * @param color A cor do Rei e das peças cravadas.
+     * @return A máscara das casas das peças cravadas.
+     */
+    public long pinned(Color color) {
+        int king = kingSquare(color);
+        int base = ((color == Color.White) ? Color.Black : Color.White).ordinal() * 6;
+        long queens = pieces[base + PieceType.Queen.ordinal()];
+        long snipers = (Attacks.rook(king, 0L) & (pieces[base + PieceType.Rook.ordinal()] | queens))
+                | (Attacks.bishop(king, 0L) & (pieces[base + PieceType.Bishop.ordinal()] | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int square = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, square) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & colors[color.ordinal()];
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Method pieceAt
+     * Retorna a peça localizada na casa indicada, sem verificação de limites.
+     *
+     * @param square O número da casa (0 a 63).
+     * @return A peça na casa, ou `null` se a casa estiver vazia.
+     */
+    public ChessPiece pieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Metodo place Piece
+     * Coloca uma peça no tabuleiro, validando a posição como {@link Board}.
+     *
+     * @param piece    A peça a ser colocada no tabuleiro (deve ser uma {@link ChessPiece}).
+     * @param position A posição no tabuleiro onde a peça será colocada.
+     * @throws boardgame.BoardException Se a posição não existir ou já existir uma peça nela.
+     * @see #placePiece(ChessPiece, int)
+     */
+    @Override
+    public void placePiece(Piece piece, Position position) {
+        if (!positionExists(position)) {
+            throw new BoardException("Position not on the Board");
+        }
+        placePiece((ChessPiece) piece, square(position));
+    }
+
+    /**
+     * Metodo removePiece
+     * Remove uma peça do tabuleiro, validando a posição como {@link Board}.
+     *
+     * @param position A {@link Position} da peça a ser removida.
+     * @return A peça removida, ou `null` se a posição estiver vazia.
+     * @throws boardgame.BoardException Se a posição fornecida estiver fora dos limites do tabuleiro.
+     * @see #removePiece(int)
+     */
+    @Override
+    public Piece removePiece(Position position) {
+        if (!positionExists(position)) {
+            throw new BoardException("Position not on the Board");
+        }
+        return removePiece(square(position));
+    }
+
+    /**
+     * Metodo place Piece
+     * Coloca uma peça na casa indicada e atualiza os bitboards correspondentes,
+     * a chave de Zobrist e a avaliação ({@link PieceSquareTables}). A posição da
+     * peça é a instância partilhada da casa ({@link #toPosition(int)}), pelo que
+     * nenhum objeto é criado.
+     *
+     * @param p      A peça a ser colocada no tabuleiro.
+     * @param square O número da casa (0 a 63, sem verificação de limites).
+     * @throws BoardException Se já existir uma peça na casa.
+     */
+    public void placePiece(ChessPiece p, int square) {
+        if (squares[square] != null) {
+            throw new BoardException("There is already a piece on position " + POSITIONS[square]);
+        }
+        putPiece(p, POSITIONS[square]);
+        long bit = 1L << square;
+        pieces[p.getColor().ordinal() * 6 + p.getType().ordinal()] |= bit;
+        colors[p.getColor().ordinal()] |= bit;
+        occupied |= bit;
+        squares[square] = p;
+        hash ^= Zobrist.piece(p.getColor(), p.getType(), square);
+        middlegame += PieceSquareTables.middlegame(p.getColor(), p.getType(), square);
+        endgame += PieceSquareTables.endgame(p.getColor(), p.getType(), square);
+        phase += PieceSquareTables.phase(p.getType());
+    }
+
+    /**
+     * Metodo removePiece
+     * Remove a peça da casa indicada e limpa o seu bit nos bitboards
+     * correspondentes, retirando-a também da chave de Zobrist e da avaliação.
+     *
+     * @param square O número da casa (0 a 63, sem verificação de limites).
+     * @return A peça removida, ou `null` se a casa estiver vazia.
+     */
+    public ChessPiece removePiece(int square) {
+        ChessPiece p = squares[square];
+        if (p != null) {
+            clearPiece(POSITIONS[square]);
+            long bit = ~(1L << square);
+            pieces[p.getColor().ordinal() * 6 + p.getType().ordinal()] &= bit;
+            colors[p.getColor().ordinal()] &= bit;
+            occupied &= bit;
+            squares[square] = null;
+            hash ^= Zobrist.piece(p.getColor(), p.getType(), square);
+            middlegame -= PieceSquareTables.middlegame(p.getColor(), p.getType(), square);
+            endgame -= PieceSquareTables.endgame(p.getColor(), p.getType(), square);
+            phase -= PieceSquareTables.phase(p.getType());
+        }
+        return p;
+    }
+
+    /**
+     * Metodo movePiece
+     * Move a peça de uma casa para outra casa vazia.
+     *
+     * @param from A casa de origem (ocupada).
+     * @param to   A casa de destino (vazia).
+     * @return A peça movida.
+     * @throws BoardException Se a casa de destino estiver ocupada.
+     */
+    public ChessPiece movePiece(int from, int to) {
+        ChessPiece p = removePiece(from);
+        placePiece(p, to);
+        return p;
+    }
+
+    /**
+     * Method square
+     * Converte uma {@link Position} no número da casa correspondente (0 a 63).
+     */
+    public static int square(Position position) {
+        return position.getRow() * 8 + position.getColumn();
+    }
+
+    /**
+     * Method toPosition
+     * Converte o número de uma casa (0 a 63) na {@link Position} correspondente.
+     * A instância é partilhada (é também a posição das peças nessa casa) e não
+     * deve ser alterada.
+     */
+    public static Position toPosition(int square) {
+        return POSITIONS[square];
+    }
+
+    /**
+     * Method toMatrix
+     * Converte uma máscara de casas na matriz booleana utilizada por
+     * {@link Piece#possibleMoves()}.
+     *
+     * @param mask A máscara de casas (um bit por casa).
+     * @return Uma matriz booleana 8x8 com `true` nas casas presentes na máscara.
+     */
+    public static boolean[][] toMatrix(long mask) {
+        boolean[][] mat = new boolean[8][8];
+        while (mask != 0) {
+            int square = Long.numberOfTrailingZeros(mask);
+            mat[square >>> 3][square & 7] = true;
+            mask &= mask - 1;
+        }
+        return mat;
+    }
+}
@@ -9,9 +9,8 @@ import boardgame.Position;
 import chess.pieces.*;
 
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Class chessMatch
@@ -19,28 +18,95 @@ import java.util.stream.Collectors;
  * Regras do Jogo de Xadrez
  */
 public class ChessMatch {
+    /// START_FEN a posição inicial em notação FEN.
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /// FEN_PIECES as letras das peças em FEN, indexadas por [PieceType#ordinal()] (minúsculas para as pretas).
+    private static final String FEN_PIECES = "PNBRQK";
+
     /// Variareis
     /// turn turno do jogo.
     /// color representa a cor do jogador atual ([branco][#WHITE] ou [preto][#BLACK]).
-    /// board tabuleiro de xadrez onde a partida está a decorrer.
+    /// board tabuleiro de xadrez (em bitboards) onde a partida está a decorrer.
     /// check booleano que indica se o rei do jogador atual está em xeque.
     /// checkMate booleano que indica se a partida terminou em xeque-mate.
+    /// draw booleano que indica se a partida terminou empatada (afogamento, regra dos 50 lances ou tripla repetição).
     /// enPassantVulnerable indica se a peça que está vulnerável a um movimento "en passant" no turno atual.Pode ser `null` se nenhuma peça estiver vulnerável.
     /// promoted indica se a peça se movimentou no último turno
     private int turn;
     private Color currentPlayer;
-    private Board board;
+    private BitBoard board;
     private boolean check;
     private boolean checkMate;
+    private boolean draw;
     private ChessPiece enPassantVulnerable;
     private ChessPiece promoted;
 
+    /// Variareis de hashing
+    /// hash parte da chave de Zobrist relativa ao jogador a mover, aos direitos de roque
+    /// e à coluna "en passant" (a parte das peças é mantida por [BitBoard#getHash()]).
+    /// enPassantKey chave "en passant" atualmente incluída em `hash`.
+    private long hash;
+    private long enPassantKey;
+
+    /// Variareis de empate
+    /// halfmoveClock número de meios-lances desde a última captura ou movimento de Peão (regra dos 50 lances).
+    /// hashHistory chaves de Zobrist de todas as posições da partida, da inicial à atual.
+    /// historyLength número de chaves em `hashHistory`.
+    private int halfmoveClock;
+    private long[] hashHistory = new long[128];
+    private int historyLength;
+
+    /// Peças capturadas
+    /// capturedPieces peças capturadas, pela ordem das capturas (uma pilha: desfazer
+    /// um movimento retira apenas a última). As peças no tabuleiro são lidas do [BitBoard].
+    /// capturedCount número de peças capturadas.
+    private ChessPiece[] capturedPieces = new ChessPiece[32];
+    private int capturedCount;
+
     /**
-     * @Listas lista de todas as peças que estão atualmente no tabuleiro.
-     * lista de todas as peças que foram capturadas durante a partida.
+     * Buffer reutilizável de movimentos codificados ({@link Move}) utilizado
+     * internamente por {@link #testCheckMate(Color)}.
      */
-    private List<Piece> piecesOnTheBoard = new ArrayList<>();
-    private List<Piece> capturedPieces = new ArrayList<>();
+    private final int[] moveBuffer = new int[Move.MAX_MOVES];
+
+    /// Cache dos movimentos do jogador atual ([#legalMovesMask(Position)])
+    /// movesKey chave de Zobrist ([#getHash()]) da posição em que a cache foi preenchida.
+    /// movesCached indica se a cache está preenchida (é invalidada a cada movimento).
+    /// possibleMasks destinos de cada casa de origem, incluindo os que deixam o Rei em xeque.
+    /// legalMasks destinos legais de cada casa de origem.
+    private long movesKey;
+    private boolean movesCached;
+    private final long[] possibleMasks = new long[64];
+    private final long[] legalMasks = new long[64];
+
+    /// Histórico de movimentos e pilha de estado de [#doMove(int)] / [#undoMove()]
+    /// (também utilizada por [#performChessMove(ChessPosition, ChessPosition)])
+    /// moveStack movimentos jogados ({@link Move}), do mais antigo para o mais recente.
+    /// capturedStack peça capturada por cada movimento (ou `null`).
+    /// enPassantStack peão vulnerável a "en passant" antes de cada movimento.
+    /// promotedStack peão substituído por cada promoção (ou `null`).
+    /// lastPromotedStack peça promovida ([#getPromoted()]) antes de cada movimento.
+    /// checkStack estado de xeque antes de cada movimento.
+    /// drawStack estado de empate antes de cada movimento.
+    /// halfmoveStack relógio dos 50 lances antes de cada movimento.
+    /// ply número de movimentos na pilha.
+    private int[] moveStack = new int[64];
+    private Piece[] capturedStack = new Piece[64];
+    private ChessPiece[] enPassantStack = new ChessPiece[64];
+    private ChessPiece[] promotedStack = new ChessPiece[64];
+    private ChessPiece[] lastPromotedStack = new ChessPiece[64];
+    private boolean[] checkStack = new boolean[64];
+    private boolean[] drawStack = new boolean[64];
+    private int[] halfmoveStack = new int[64];
+    private int ply;
+
+    /// Posição em que o histórico de movimentos começa ([#getInitialFen()])
+    /// initialFen a posição em notação FEN, ou `null` se for a posição inicial ou ainda não tiver sido escrita.
+    /// initialPosition a posição de partida de uma cópia ([#ChessMatch(ChessMatch)]), cuja FEN
+    /// só é escrita quando for pedida, ou `null`.
+    private String initialFen;
+    private FenPosition initialPosition;
 
     /**
      * Construtor
@@ -48,18 +114,105 @@ public class ChessMatch {
      * <p>
      * Este construtor realiza as seguintes ações:
      * <ul>
-     * <li>Instancia um tabuleiro de xadrez padrão de 8x8.</li>
+     * <li>Instancia um tabuleiro de xadrez padrão de 8x8 ({@link BitBoard}).</li>
      * <li>Define o turno inicial como 1.</li>
      * <li>Define o jogador inicial como Branco (por padrão).</li>
      * <li>Chama o método {@link #initialSetup()} para posicionar as peças no tabuleiro.</li>
      * </ul>
      */
     public ChessMatch() {
-        board = new Board(8, 8);
+        board = new BitBoard();
         turn = 1;
         currentPlayer = Color.White;
         // chama initialSetup
         initialSetup();
+        hash = Zobrist.castling(castlingRights());
+        pushHash();
+    }
+
+    /**
+     * Construtor de cópia
+     * cria uma cópia independente da partida indicada, na mesma posição.
+     * <p>
+     * A cópia tem o seu próprio {@link BitBoard} e as suas próprias peças (com o
+     * mesmo contador de movimentos), associadas à nova partida e ao novo
+     * tabuleiro, pelo que as duas partidas podem ser alteradas em threads
+     * diferentes. O turno, o jogador atual, o xeque, o xeque-mate, o empate, o
+     * peão vulnerável a "en passant", a peça promovida, a chave de Zobrist e o
+     * histórico de chaves (para a deteção de repetições) são copiados. A pilha
+     * de {@link #doMove(int)} não é copiada: a cópia começa sem movimentos para
+     * desfazer, na posição atual ({@link #getInitialFen()}).
+     * <p>
+     * O custo é proporcional ao número de peças (no máximo 32 no tabuleiro) mais
+     * a cópia do histórico de chaves (um `long` por posição da partida). A
+     * posição de partida é guardada pelos bitboards, sem escrever a FEN.
+     *
+     * @param other A partida a copiar (não é alterada).
+     */
+    public ChessMatch(ChessMatch other) {
+        board = new BitBoard();
+        turn = other.turn;
+        currentPlayer = other.currentPlayer;
+        check = other.check;
+        checkMate = other.checkMate;
+        draw = other.draw;
+        long occupied = other.board.occupancy();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece p = other.board.pieceAt(square);
+            ChessPiece copy = copyPiece(p);
+            board.placePiece(copy, square);
+            if (p == other.enPassantVulnerable) {
+                enPassantVulnerable = copy;
+            }
+            if (p == other.promoted) {
+                promoted = copy;
+            }
+        }
+        capturedPieces = new ChessPiece[other.capturedPieces.length];
+        for (int i = 0; i < other.capturedCount; i++) {
+            capturedPieces[i] = copyPiece(other.capturedPieces[i]);
+        }
+        capturedCount = other.capturedCount;
+        hash = other.hash;
+        enPassantKey = other.enPassantKey;
+        halfmoveClock = other.halfmoveClock;
+        hashHistory = Arrays.copyOf(other.hashHistory, other.hashHistory.length);
+        historyLength = other.historyLength;
+        // o histórico de movimentos não é copiado: a cópia começa na posição atual
+        if (other.ply == 0) {
+            initialFen = other.initialFen;
+            initialPosition = other.initialPosition;
+        } else {
+            initialPosition = new FenPosition(other);
+        }
+    }
+
+    /**
+     * Construtor FEN
+     * cria uma partida na posição descrita em notação FEN (Forsyth-Edwards):
+     * peças, jogador a mover, direitos de roque, casa "en passant", relógio dos
+     * 50 lances e número do lance (os dois últimos campos são opcionais).
+     * <p>
+     * Os direitos de roque são representados como no resto da partida, pelo
+     * contador de movimentos: o Rei e as Torres com direito de roque ficam com
+     * 0 movimentos, os restantes Reis e Torres com 1, e os Peões fora da sua
+     * linha inicial com 1 (sem o avanço duplo). A casa "en passant" define o
+     * peão vulnerável ({@link #getenPassantVulnerable()}).
+     * <p>
+     * A notação é lida diretamente da {@link CharSequence}, carácter a
+     * carácter, sem criar substrings.
+     *
+     * @param fen A posição em notação FEN.
+     * @throws ChessException Se a notação for inválida.
+     */
+    public ChessMatch(CharSequence fen) {
+        board = new BitBoard();
+        loadFen(fen);
+        initialFen = fen.toString();
+        pushHash();
+        updateResult();
     }
 
     /**
@@ -83,6 +236,14 @@ public class ChessMatch {
         return checkMate;
     }
 
+    public boolean getDraw() {
+        return draw;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
     public ChessPiece getenPassantVulnerable() {
         return enPassantVulnerable;
     }
@@ -91,6 +252,207 @@ public class ChessMatch {
         return promoted;
     }
 
+    /**
+     * Method getHash
+     * Retorna a chave de Zobrist de 64 bits da posição atual: peças, jogador a
+     * mover, direitos de roque e coluna "en passant".
+     * <p>
+     * A chave é mantida incrementalmente por {@link #makeMove(int, int)},
+     * {@link #undoMove(int, int, Piece)} e {@link #replacePromotedPiece(String)},
+     * pelo que a consulta é O(1) e nunca percorre o tabuleiro.
+     *
+     * @return A chave de Zobrist da posição.
+     */
+    public long getHash() {
+        return board.getHash() ^ hash;
+    }
+
+    /**
+     * Method toFen
+     *
+     * @return A posição atual em notação FEN (ver {@link #ChessMatch(CharSequence)}).
+     */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        appendFen(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Method appendFen
+     * Escreve a posição atual em notação FEN no fim do {@link StringBuilder}
+     * indicado, que pode ser reutilizado entre posições. Depois de um
+     * xeque-mate, o jogador a mover é o que sofreu o mate.
+     *
+     * @param sb O destino da notação.
+     */
+    public void appendFen(StringBuilder sb) {
+        new FenPosition(this).appendFen(sb);
+    }
+
+    /**
+     * Method isRepetition
+     * Verifica se a posição atual já ocorreu na partida (ou na linha jogada com
+     * {@link #doMove(int)}), com o mesmo jogador a mover. A pesquisa trata uma
+     * repetição como empate, porque o adversário a pode repetir de novo.
+     * <p>
+     * Só são comparadas as chaves desde a última captura ou movimento de Peão:
+     * as posições anteriores a um movimento irreversível não podem voltar a ocorrer.
+     *
+     * @return `true` se a posição atual for uma repetição.
+     */
+    public boolean isRepetition() {
+        return repetitions(1) >= 1;
+    }
+
+    /**
+     * Method isThreefoldRepetition
+     *
+     * @return `true` se a posição atual ocorreu pelo menos três vezes (empate).
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions(2) >= 2;
+    }
+
+    /**
+     * Method isFiftyMoveRule
+     *
+     * @return `true` se passaram 50 lances (100 meios-lances) sem capturas nem movimentos de Peão (empate).
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Method isStalemate
+     * Verifica se o jogador atual está afogado: não está em xeque e não tem
+     * nenhum movimento legal. A procura termina no primeiro movimento legal
+     * encontrado ({@link #hasLegalMove(Color)}).
+     *
+     * @return `true` se o jogador atual estiver afogado (empate).
+     */
+    public boolean isStalemate() {
+        return !testCheck(currentPlayer) && !hasLegalMove(currentPlayer);
+    }
+
+    /**
+     * Method repetitions
+     * Conta as ocorrências anteriores da posição atual, percorrendo o histórico
+     * de dois em dois meios-lances (o mesmo jogador a mover) até ao último
+     * movimento irreversível.
+     *
+     * @param limit O número de ocorrências a partir do qual a contagem pára.
+     * @return O número de ocorrências anteriores (no máximo `limit`).
+     */
+    private int repetitions(int limit) {
+        long key = hashHistory[historyLength - 1];
+        int stop = Math.max(0, historyLength - 1 - halfmoveClock);
+        int count = 0;
+        // uma posição só se pode repetir ao fim de quatro meios-lances
+        for (int i = historyLength - 5; i >= stop; i -= 2) {
+            if (hashHistory[i] == key && ++count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method pushHash
+     * Acrescenta a chave da posição atual ao histórico.
+     */
+    private void pushHash() {
+        if (historyLength == hashHistory.length) {
+            hashHistory = Arrays.copyOf(hashHistory, historyLength * 2);
+        }
+        hashHistory[historyLength++] = getHash();
+    }
+
+    /**
+     * Method pieces
+     * Retorna as casas das peças da cor e do tipo indicados, lidas do bitboard
+     * correspondente (um bit por casa, ver {@link BitBoard}), sem percorrer o tabuleiro.
+     *
+     * @param color A cor das peças.
+     * @param type  O tipo das peças.
+     * @return A máscara das casas dessas peças.
+     */
+    public long pieces(Color color, PieceType type) {
+        return board.pieces(color, type);
+    }
+
+    /**
+     * Getters
+     * <p>
+     * Máscaras de ocupação do tabuleiro: das peças da cor indicada e de todas as peças.
+     */
+    public long occupancy(Color color) {
+        return board.occupancy(color);
+    }
+
+    public long occupancy() {
+        return board.occupancy();
+    }
+
+    /**
+     * Method attackersTo
+     * Retorna as peças (de ambas as cores) que atacam a casa indicada, dada uma
+     * ocupação do tabuleiro (ver {@link BitBoard#attackersTo(int, long)}). Com uma
+     * ocupação sem as peças já trocadas, as peças escondidas atrás delas nos
+     * mesmos raios ("raios X") passam a ser incluídas.
+     *
+     * @param square   A casa alvo (0 a 63).
+     * @param occupied A ocupação a considerar para os raios das peças deslizantes.
+     * @return A máscara das casas das peças que atacam a casa alvo.
+     */
+    public long attackersTo(int square, long occupied) {
+        return board.attackersTo(square, occupied);
+    }
+
+    /**
+     * Method pieceAt
+     * Retorna a peça na casa indicada (numeração de {@link BitBoard}), sem criar a
+     * matriz de {@link #getPieces()}.
+     *
+     * @param square O número da casa (0 a 63).
+     * @return A peça na casa, ou `null` se a casa estiver vazia.
+     */
+    public ChessPiece pieceAt(int square) {
+        return board.pieceAt(square);
+    }
+
+    /**
+     * Method getMiddlegameScore
+     * Retorna o valor de meio-jogo (material e peça-casa, {@link PieceSquareTables})
+     * das peças no tabuleiro, do ponto de vista das brancas.
+     * <p>
+     * O valor, tal como o de final e a fase, é atualizado incrementalmente a cada
+     * colocação ou remoção de uma peça no {@link BitBoard}, e portanto por
+     * {@link #makeMove(int, int)}, {@link #undoMove(int, int, Piece)}
+     * e {@link #replacePromotedPiece(String)}: a consulta é O(1).
+     *
+     * @return O valor de meio-jogo em centésimos de Peão.
+     */
+    public int getMiddlegameScore() {
+        return board.getMiddlegameScore();
+    }
+
+    /**
+     * @return O valor de final das peças no tabuleiro, do ponto de vista das brancas
+     * (ver {@link #getMiddlegameScore()}).
+     */
+    public int getEndgameScore() {
+        return board.getEndgameScore();
+    }
+
+    /**
+     * @return A fase do jogo, de {@link PieceSquareTables#MAX_PHASE} na posição inicial
+     * a 0 quando só restam Reis e Peões (pode exceder o máximo após promoções).
+     */
+    public int getPhase() {
+        return board.getPhase();
+    }
+
     /**
      * Method getPieces
      * uma matriz bidimensional contendo todas as peças de xadrez presentes no tabuleiro.
@@ -116,6 +478,9 @@ public class ChessMatch {
      * Maethod possibleMoves
      * Retorna uma matriz booleana indicando os movimentos possíveis para a peça
      * na posição de xadrez especificada.
+     * <p>
+     * Apenas os movimentos legais são assinalados: os movimentos que deixariam o
+     * próprio rei em xeque são excluídos ({@link #legalMovesMask(Position)}).
      *
      * @param sourcePosition A {@link ChessPosition} da peça para a qual os movimentos possíveis serão calculados.
      * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
@@ -127,7 +492,179 @@ public class ChessMatch {
     public boolean[][] possibleMoves(ChessPosition sourcePosition) {
         Position position = sourcePosition.toPosition();
         validateSourcePosition(position);
-        return board.piece(position).possibleMoves();
+        return BitBoard.toMatrix(legalMovesMask(position));
+    }
+
+    /**
+     * Method generateMoves
+     * Escreve todos os movimentos possíveis do jogador atual no buffer fornecido,
+     * codificados com {@link Move} (origem, destino, flags e peça de promoção),
+     * e retorna o número de movimentos escritos.
+     * <p>
+     * Inclui os movimentos especiais de roque, "en passant" e promoção. Não exclui
+     * os movimentos que deixam o próprio rei em xeque (ver
+     * {@link #generateLegalMoves(int[])}). Nenhum objeto é alocado: o buffer pode
+     * ser reutilizado entre chamadas.
+     *
+     * @param moves O buffer de destino, com pelo menos {@link Move#MAX_MOVES} posições.
+     * @return O número de movimentos escritos no buffer.
+     */
+    public int generateMoves(int[] moves) {
+        return generateMoves(currentPlayer, moves);
+    }
+
+    /**
+     * Method generateLegalMoves
+     * Escreve apenas os movimentos legais do jogador atual no buffer fornecido,
+     * codificados com {@link Move}, e retorna o número de movimentos escritos.
+     * <p>
+     * A legalidade é decidida com máscaras calculadas antecipadamente (peças
+     * cravadas e casas que resolvem o xeque), sem simular os movimentos no
+     * tabuleiro (ver {@link #filterLegalMoves(Color, int[], int, int)}).
+     *
+     * @param moves O buffer de destino, com pelo menos {@link Move#MAX_MOVES} posições.
+     * @return O número de movimentos legais escritos no buffer.
+     */
+    public int generateLegalMoves(int[] moves) {
+        return filterLegalMoves(currentPlayer, moves, 0, generateMoves(currentPlayer, moves));
+    }
+
+    /**
+     * Method generateMoves
+     * Escreve os movimentos possíveis das peças da cor indicada no buffer,
+     * percorrendo apenas os bits da máscara de ocupação dessa cor.
+     *
+     * @param color A cor das peças.
+     * @param moves O buffer de destino.
+     * @return O número de movimentos escritos no buffer.
+     */
+    private int generateMoves(Color color, int[] moves) {
+        int count = 0;
+        long pieces = board.occupancy(color);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            count = board.pieceAt(square).generateMoves(moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Method filterLegalMoves
+     * Remove do buffer os movimentos que deixariam o rei da cor indicada em
+     * xeque, compactando os movimentos legais no início do intervalo.
+     * <p>
+     * Antes de percorrer os movimentos são calculadas:
+     * <ul>
+     * <li>a máscara de xeque: as casas que capturam ou bloqueiam a única peça que
+     * dá xeque (todas as casas sem xeque, nenhuma com xeque duplo);</li>
+     * <li>as peças cravadas, que só se podem mover ao longo da linha que as une ao rei.</li>
+     * </ul>
+     * Os movimentos do Rei são validados com {@link BitBoard#isAttacked(int, Color, long)},
+     * retirando o próprio Rei da ocupação. A captura "en passant", que retira duas
+     * peças da mesma linha, é validada verificando os raios das peças deslizantes
+     * adversárias com a ocupação resultante.
+     *
+     * @param color A cor das peças que se movem.
+     * @param moves O buffer de movimentos.
+     * @param start A posição do primeiro movimento a filtrar.
+     * @param end   A posição a seguir ao último movimento a filtrar.
+     * @return A posição a seguir ao último movimento legal.
+     */
+    private int filterLegalMoves(Color color, int[] moves, int start, int end) {
+        Color them = opponent(color);
+        int king = board.kingSquare(color);
+        long occupied = board.occupancy();
+        long checkers = board.checkers(color);
+        long pinned = board.pinned(color);
+        long checkMask;
+        if (checkers == 0) {
+            checkMask = ~0L;
+        } else if ((checkers & (checkers - 1)) != 0) {
+            checkMask = 0L;
+        } else {
+            checkMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+
+        int count = start;
+        for (int i = start; i < end; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            int to = Move.to(move);
+            boolean legal;
+            if (from == king) {
+                legal = !board.isAttacked(to, them, occupied ^ (1L << king));
+            } else if (Move.isEnPassant(move)) {
+                int captured = to + ((color == Color.White) ? 8 : -8);
+                long after = (occupied ^ (1L << from) ^ (1L << captured)) | (1L << to);
+                long queens = board.pieces(them, PieceType.Queen);
+                legal = ((1L << to | 1L << captured) & checkMask) != 0
+                        && (Attacks.rook(king, after) & (board.pieces(them, PieceType.Rook) | queens)) == 0
+                        && (Attacks.bishop(king, after) & (board.pieces(them, PieceType.Bishop) | queens)) == 0;
+            } else {
+                long allowed = checkMask;
+                if ((pinned & (1L << from)) != 0) {
+                    allowed &= Attacks.line(king, from);
+                }
+                legal = (allowed & (1L << to)) != 0;
+            }
+            if (legal) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method legalMovesMask
+     * Retorna a máscara dos movimentos legais da peça na posição indicada.
+     * <p>
+     * Para as peças do jogador atual, a máscara é lida da cache
+     * ({@link #cacheMoves()}): a validação da origem, o destaque dos movimentos
+     * possíveis e a validação do destino de um mesmo lance geram os movimentos
+     * uma única vez.
+     *
+     * @param position A {@link Position} da peça.
+     * @return A máscara das casas de destino legais.
+     */
+    private long legalMovesMask(Position position) {
+        ChessPiece piece = (ChessPiece) board.piece(position);
+        if (piece.getColor() == currentPlayer) {
+            cacheMoves();
+            return legalMasks[BitBoard.square(position)];
+        }
+        int count = filterLegalMoves(piece.getColor(), moveBuffer, 0, piece.generateMoves(moveBuffer, 0));
+        long mask = 0L;
+        for (int i = 0; i < count; i++) {
+            mask |= 1L << Move.to(moveBuffer[i]);
+        }
+        return mask;
+    }
+
+    /**
+     * Method cacheMoves
+     * Preenche a cache de movimentos do jogador atual, se ainda não estiver
+     * preenchida para a posição atual: todos os movimentos são gerados de uma vez
+     * e os destinos são agrupados por casa de origem, antes e depois de excluir
+     * os movimentos que deixam o Rei em xeque.
+     */
+    private void cacheMoves() {
+        long key = getHash();
+        if (movesCached && movesKey == key) {
+            return;
+        }
+        Arrays.fill(possibleMasks, 0L);
+        Arrays.fill(legalMasks, 0L);
+        int count = generateMoves(currentPlayer, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            possibleMasks[Move.from(moveBuffer[i])] |= 1L << Move.to(moveBuffer[i]);
+        }
+        count = filterLegalMoves(currentPlayer, moveBuffer, 0, count);
+        for (int i = 0; i < count; i++) {
+            legalMasks[Move.from(moveBuffer[i])] |= 1L << Move.to(moveBuffer[i]);
+        }
+        movesKey = key;
+        movesCached = true;
     }
 
     /**
@@ -136,9 +673,10 @@ public class ChessMatch {
      * <p>
      * Este método retira a peça da posição de origem, coloca-a na posição de destino,
      * e captura qualquer peça adversária que esteja na posição de destino. Valida
-     * as posições de origem e destino, verifica se o movimento coloca o jogador atual
-     * em xeque, e atualiza o estado do jogo (turno, jogador atual, xeque, xeque-mate,
-     * e variáveis especiais como "en passant" e promoção).
+     * as posições de origem e destino (incluindo, sem simular o movimento, se o
+     * movimento colocaria o jogador atual em xeque), e atualiza o estado do jogo
+     * (turno, jogador atual, xeque, xeque-mate, empate, e variáveis especiais
+     * como "en passant" e promoção).
      *
      * @param sourcePosition A {@link ChessPosition} da peça a ser movida.
      * @param targetPosition A {@link ChessPosition} para onde a peça será movida.
@@ -152,45 +690,96 @@ public class ChessMatch {
         Position target = targetPosition.toPosition();
         validateSourcePosition(source);
         validateTargetPosition(source, target);
-        Piece capturedPiece = makeMove(source, target);
+        // Special MOVE PROMOTION: Rainha por omissão ([#replacePromotedPiece(String)])
+        return playMove(findMove(BitBoard.square(source), BitBoard.square(target)));
+    }
 
-        if (testCheck(currentPlayer)) {
-            undoMove(source, target, capturedPiece);
-            throw new ChessException("You can't put yourself in check");
-        }
+    /**
+     * Method playMove
+     * Joga um movimento legal codificado ({@link Move}) como
+     * {@link #performChessMove(ChessPosition, ChessPosition)}, mas sem validar as
+     * posições: atualiza a peça promovida ({@link #getPromoted()}), o xeque, o
+     * xeque-mate e o empate. Destina-se a repetir partidas já validadas (e.g.,
+     * lidas de um arquivo), com movimentos de {@link #generateLegalMoves(int[])}.
+     *
+     * @param move O movimento a jogar; a promoção utiliza a peça codificada no movimento.
+     * @return A peça capturada durante o movimento (pode ser `null` se nenhuma peça for capturada).
+     */
+    public ChessPiece playMove(int move) {
+        doMove(move);
+        promoted = Move.isPromotion(move) ? board.pieceAt(Move.to(move)) : null;
+        updateResult();
 
-        ChessPiece movedPiece = (ChessPiece) board.piece(target);
+        return (ChessPiece) capturedStack[ply - 1];
+    }
 
-        // Special MOVE PROMOTION
-        promoted = null;
-        if (movedPiece instanceof Pawn) {
-            if (movedPiece.getColor() == Color.White && target.getRow() == 0
-                    || movedPiece.getColor() == Color.Black && target.getRow() == 7) {
-                promoted = (ChessPiece) board.piece(target);
-                promoted = replacePromotedPiece("Q");
+    /**
+     * Method findMove
+     * Procura, entre os movimentos da peça na casa de origem, o movimento
+     * codificado ({@link Move}) para a casa de destino, com as flags de captura,
+     * roque e "en passant" e, numa promoção, a Rainha.
+     *
+     * @throws IllegalStateException Se a peça não tiver nenhum movimento para o destino.
+     */
+    private int findMove(int from, int to) {
+        int count = board.pieceAt(from).generateMoves(moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            PieceType promotion = Move.promotion(move);
+            if (Move.to(move) == to && (promotion == null || promotion == PieceType.Queen)) {
+                return move;
             }
         }
+        throw new IllegalStateException("No move from " + from + " to " + to);
+    }
 
-        check = (testCheck(opponent(currentPlayer))) ? true : false;
-
-        if (testCheckMate(opponent(currentPlayer))) {
-            checkMate = true;
-        } else {
+    /**
+     * Method updateResult
+     * Atualiza o xeque, o xeque-mate e o empate depois de um movimento
+     * interativo. Em caso de xeque-mate, a vez não passa ao adversário: o
+     * jogador atual é o vencedor.
+     */
+    private void updateResult() {
+        if (checkMate) {
             nextTurn();
+            checkMate = false;
         }
-
-        // Special move en passant
-        if (movedPiece instanceof Pawn
-                && (target.getRow() == source.getRow() - 2 || target.getRow() == source.getRow() + 2)) {
-            enPassantVulnerable = movedPiece;
-        } else {
-            enPassantVulnerable = null;
+        check = testCheck(currentPlayer);
+        if (testCheckMate(currentPlayer)) {
+            checkMate = true;
+            turn--;
+            currentPlayer = opponent(currentPlayer);
         }
-
-        return (ChessPiece) capturedPiece;
+        draw = !checkMate && (isStalemate() || isFiftyMoveRule() || isThreefoldRepetition());
     }
 
+    /**
+     * Method replacePromotedPiece
+     * Substitui a peça promovida no último movimento (por omissão, uma Rainha)
+     * pela peça escolhida, atualizando o movimento e a posição registados no
+     * histórico, o xeque, o xeque-mate e o empate (uma sub-promoção pode, e.g.,
+     * afogar o adversário).
+     *
+     * @param type A peça escolhida ("B", "N", "R" ou "Q").
+     * @return A nova peça.
+     * @throws IllegalStateException     Se não houver peça promovida.
+     * @throws InvalidParameterException Se o tipo de peça for inválido.
+     */
     public ChessPiece replacePromotedPiece(String type) {
+        ChessPiece newPiece = promote(type);
+        promoted = newPiece;
+        int move = moveStack[ply - 1];
+        moveStack[ply - 1] = Move.of(Move.from(move), Move.to(move), Move.flags(move), newPiece.getType());
+        hashHistory[historyLength - 1] = getHash();
+        updateResult();
+        return newPiece;
+    }
+
+    /**
+     * Method promote
+     * Substitui a peça promovida pela peça do tipo indicado no tabuleiro e na chave de Zobrist.
+     */
+    private ChessPiece promote(String type) {
         if (promoted == null) {
             throw new IllegalStateException("There is no piece to be promoted");
         }
@@ -198,17 +787,304 @@ public class ChessMatch {
             throw new InvalidParameterException("Invalid type for promotion");
         }
 
-        Position pos = promoted.getChessPosition().toPosition();
-        Piece p = board.removePiece(pos);
-        piecesOnTheBoard.remove(p);
+        movesCached = false;
+        int rights = castlingRights();
+        int square = promoted.getSquare();
+        board.removePiece(square);
 
         ChessPiece newPiece = newPiece(type, promoted.getColor());
-        board.placePiece(newPiece, pos);
-        piecesOnTheBoard.add(newPiece);
+        board.placePiece(newPiece, square);
+        hash ^= Zobrist.castling(rights) ^ Zobrist.castling(castlingRights());
 
         return newPiece;
     }
 
+    /**
+     * Method doMove
+     * Joga um movimento codificado com {@link Move}, tal como gerado por
+     * {@link #generateLegalMoves(int[])}, guardando numa pilha o estado
+     * necessário para o desfazer com {@link #undoMove()}.
+     * <p>
+     * Ao contrário de {@link #performChessMove(ChessPosition, ChessPosition)}, o
+     * movimento não é validado e não é feito o teste de xeque-mate: este método
+     * destina-se à pesquisa e à análise (e.g., perft), que geram apenas movimentos
+     * legais. A promoção utiliza a peça codificada no movimento, o peão vulnerável
+     * a "en passant" e o xeque são atualizados e a vez passa ao adversário.
+     *
+     * @param move O movimento a jogar.
+     */
+    public void doMove(int move) {
+        if (ply == moveStack.length) {
+            int size = ply * 2;
+            moveStack = Arrays.copyOf(moveStack, size);
+            capturedStack = Arrays.copyOf(capturedStack, size);
+            enPassantStack = Arrays.copyOf(enPassantStack, size);
+            promotedStack = Arrays.copyOf(promotedStack, size);
+            lastPromotedStack = Arrays.copyOf(lastPromotedStack, size);
+            checkStack = Arrays.copyOf(checkStack, size);
+            drawStack = Arrays.copyOf(drawStack, size);
+            halfmoveStack = Arrays.copyOf(halfmoveStack, size);
+        }
+        int source = Move.from(move);
+        int target = Move.to(move);
+
+        moveStack[ply] = move;
+        enPassantStack[ply] = enPassantVulnerable;
+        lastPromotedStack[ply] = promoted;
+        checkStack[ply] = check;
+        drawStack[ply] = draw;
+        halfmoveStack[ply] = halfmoveClock;
+        halfmoveClock = (Move.isCapture(move) || board.pieceAt(source) instanceof Pawn) ? 0 : halfmoveClock + 1;
+        capturedStack[ply] = makeMove(source, target);
+        promotedStack[ply] = null;
+
+        // Special move promotion
+        if (Move.isPromotion(move)) {
+            ChessPiece pawn = board.removePiece(target);
+            ChessPiece newPiece = newPiece(Move.promotion(move), pawn.getColor());
+            board.placePiece(newPiece, target);
+            promotedStack[ply] = pawn;
+        }
+        ply++;
+
+        setEnPassantVulnerable(Move.isDoublePawnPush(move) ? board.pieceAt(target) : null);
+        nextTurn();
+        check = testCheck(currentPlayer);
+        pushHash();
+    }
+
+    /**
+     * Method undoMove
+     * Desfaz o último movimento jogado com {@link #doMove(int)} ou com
+     * {@link #performChessMove(ChessPosition, ChessPosition)}, repondo
+     * exatamente o estado anterior: o tabuleiro (incluindo o peão de uma
+     * promoção, qualquer que seja a peça escolhida), as peças capturadas, o
+     * jogador atual, o turno, o xeque, o xeque-mate, o empate, a peça promovida,
+     * o peão vulnerável a "en passant", o relógio dos 50 lances e a chave de Zobrist.
+     *
+     * @throws IllegalStateException Se não houver nenhum movimento para desfazer.
+     */
+    public void undoMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("There is no move to undo");
+        }
+        ply--;
+        int move = moveStack[ply];
+        int source = Move.from(move);
+        int target = Move.to(move);
+
+        // depois de um xeque-mate a vez não tinha passado ao adversário
+        if (checkMate) {
+            nextTurn();
+            checkMate = false;
+        }
+        turn--;
+        currentPlayer = opponent(currentPlayer);
+        check = checkStack[ply];
+        draw = drawStack[ply];
+        promoted = lastPromotedStack[ply];
+        halfmoveClock = halfmoveStack[ply];
+        historyLength--;
+        // o peão vulnerável é reposto antes de desfazer, para identificar o "en passant"
+        enPassantVulnerable = enPassantStack[ply];
+
+        // Special move promotion: repõe o peão antes de desfazer o movimento
+        ChessPiece pawn = promotedStack[ply];
+        if (pawn != null) {
+            board.removePiece(target);
+            board.placePiece(pawn, target);
+            promotedStack[ply] = null;
+        }
+        undoMove(source, target, capturedStack[ply]);
+        setEnPassantVulnerable(enPassantStack[ply]);
+        capturedStack[ply] = null;
+        enPassantStack[ply] = null;
+        lastPromotedStack[ply] = null;
+    }
+
+    /**
+     * Method undoLastMove
+     * Anula o último lance da partida ("take-back"), repondo exatamente o estado
+     * anterior ({@link #undoMove()}).
+     *
+     * @throws ChessException Se não houver nenhum lance para anular.
+     */
+    public void undoLastMove() {
+        if (ply == 0) {
+            throw new ChessException("There is no move to take back.");
+        }
+        undoMove();
+    }
+
+    /**
+     * Method getMoveHistory
+     * Retorna os movimentos jogados desde o início da partida (ou desde a cópia
+     * da partida), do mais antigo para o mais recente, codificados com
+     * {@link Move}; uma promoção tem a peça escolhida.
+     *
+     * @return Uma cópia do histórico de movimentos.
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(moveStack, ply);
+    }
+
+    /**
+     * @return O número de movimentos no histórico.
+     */
+    public int getMoveHistoryLength() {
+        return ply;
+    }
+
+    /**
+     * Method getInitialFen
+     * Retorna a posição em que começa o histórico de movimentos
+     * ({@link #getMoveHistory()}): a posição inicial, a posição FEN do construtor,
+     * ou a posição da partida copiada.
+     *
+     * @return A posição em notação FEN.
+     */
+    public String getInitialFen() {
+        if (initialFen == null && initialPosition != null) {
+            StringBuilder sb = new StringBuilder(90);
+            initialPosition.appendFen(sb);
+            initialFen = sb.toString();
+        }
+        return (initialFen != null) ? initialFen : START_FEN;
+    }
+
+    /**
+     * Class FenPosition
+     * Os campos da notação FEN de uma posição: os bitboards das peças, o jogador
+     * a mover, os direitos de roque, a casa "en passant" e os contadores. Guarda
+     * a posição de partida de uma cópia sem escrever a FEN, que só é escrita
+     * quando for pedida ({@link #getInitialFen()}), e escreve a FEN da posição
+     * atual ({@link #appendFen(StringBuilder)}).
+     */
+    private static final class FenPosition {
+
+        private final long[] pieces;
+        private final Color toMove;
+        private final int castlingRights;
+        private final int enPassantSquare;
+        private final int halfmoveClock;
+        private final int fullmove;
+
+        FenPosition(ChessMatch chessMatch) {
+            pieces = chessMatch.board.copyPieces();
+            // depois de um xeque-mate a vez não passou ao adversário
+            toMove = chessMatch.checkMate ? chessMatch.opponent(chessMatch.currentPlayer) : chessMatch.currentPlayer;
+            int plies = chessMatch.checkMate ? chessMatch.turn : chessMatch.turn - 1;
+            fullmove = plies / 2 + 1;
+            castlingRights = chessMatch.castlingRights();
+            ChessPiece vulnerable = chessMatch.enPassantVulnerable;
+            // a casa atravessada pelo peão, atrás dele
+            enPassantSquare = (vulnerable == null) ? -1
+                    : vulnerable.getSquare() + (vulnerable.getColor() == Color.White ? 8 : -8);
+            halfmoveClock = chessMatch.halfmoveClock;
+        }
+
+        void appendFen(StringBuilder sb) {
+            for (int row = 0; row < 8; row++) {
+                int empty = 0;
+                for (int square = row * 8; square < row * 8 + 8; square++) {
+                    int index = 0;
+                    while (index < pieces.length && (pieces[index] & (1L << square)) == 0) {
+                        index++;
+                    }
+                    if (index == pieces.length) {
+                        empty++;
+                        continue;
+                    }
+                    if (empty > 0) {
+                        sb.append((char) ('0' + empty));
+                        empty = 0;
+                    }
+                    // índice `color * 6 + type`: as pretas (minúsculas) são as primeiras
+                    char c = FEN_PIECES.charAt(index % 6);
+                    sb.append(index / 6 == Color.White.ordinal() ? c : Character.toLowerCase(c));
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                }
+                if (row < 7) {
+                    sb.append('/');
+                }
+            }
+
+            sb.append(' ').append(toMove == Color.White ? 'w' : 'b').append(' ');
+            if (castlingRights == 0) {
+                sb.append('-');
+            } else {
+                if ((castlingRights & Zobrist.WHITE_KINGSIDE) != 0) {
+                    sb.append('K');
+                }
+                if ((castlingRights & Zobrist.WHITE_QUEENSIDE) != 0) {
+                    sb.append('Q');
+                }
+                if ((castlingRights & Zobrist.BLACK_KINGSIDE) != 0) {
+                    sb.append('k');
+                }
+                if ((castlingRights & Zobrist.BLACK_QUEENSIDE) != 0) {
+                    sb.append('q');
+                }
+            }
+
+            sb.append(' ');
+            if (enPassantSquare < 0) {
+                sb.append('-');
+            } else {
+                sb.append((char) ('a' + (enPassantSquare & 7))).append((char) ('8' - (enPassantSquare >>> 3)));
+            }
+            sb.append(' ').append(halfmoveClock).append(' ').append(fullmove);
+        }
+    }
+
+    /**
+     * Method getCapturedPieces
+     *
+     * @return As peças capturadas, pela ordem das capturas.
+     */
+    public List<ChessPiece> getCapturedPieces() {
+        return List.of(Arrays.copyOf(capturedPieces, capturedCount));
+    }
+
+    /**
+     * Method newPiece
+     * Cria uma nova instância de {@link ChessPiece} do tipo especificado
+     * (promoção de um movimento codificado com {@link Move} ou cópia de uma peça).
+     *
+     * @param type  O tipo da peça.
+     * @param color A cor da peça ({@link Color}).
+     * @return Uma nova instância de {@link ChessPiece} do tipo e cor especificados.
+     */
+    private ChessPiece newPiece(PieceType type, Color color) {
+        switch (type) {
+            case Pawn:
+                return new Pawn(board, color, this);
+            case King:
+                return new King(board, color);
+            case Bishop:
+                return new Bishop(board, color);
+            case Knight:
+                return new Knight(board, color);
+            case Queen:
+                return new Queen(board, color);
+            default:
+                return new Rook(board, color);
+        }
+    }
+
+    /**
+     * Method copyPiece
+     * Cria uma nova peça, associada a esta partida e ao seu tabuleiro, do mesmo
+     * tipo, cor e contador de movimentos da peça indicada.
+     */
+    private ChessPiece copyPiece(ChessPiece piece) {
+        ChessPiece copy = newPiece(piece.getType(), piece.getColor());
+        copy.setMoveCount(piece.getMoveCount());
+        return copy;
+    }
+
     /**
      * Method newPiece
      * Cria uma nova instância de {@link ChessPiece} do tipo e cor especificados.
@@ -237,116 +1113,159 @@ public class ChessMatch {
      * Este método remove a peça da origem, incrementa seu contador de movimentos,
      * remove qualquer peça que esteja no destino, coloca a peça movida no destino,
      * e atualiza as listas de peças no tabuleiro e peças capturadas. Também lida
-     * com os movimentos especiais de roque e "en passant".
+     * com os movimentos especiais de roque e "en passant". A chave de Zobrist é
+     * atualizada com o jogador a mover e os direitos de roque resultantes (as
+     * peças são atualizadas pelo {@link BitBoard}).
      *
-     * @param source A {@link Position} de origem da peça.
-     * @param target A {@link Position} de destino da peça.
+     * @param source A casa de origem da peça (0 a 63).
+     * @param target A casa de destino da peça (0 a 63).
      * @return A peça capturada durante o movimento (pode ser `null`).
      */
-    private Piece makeMove(Position source, Position target) {
-        ChessPiece p = (ChessPiece) board.removePiece(source);
-        p.increaseMoveCount();
+    private Piece makeMove(int source, int target) {
+        movesCached = false;
+        int rights = castlingRights();
         Piece capturedPiece = board.removePiece(target);
-        board.placePiece(p, target);
+        ChessPiece p = board.movePiece(source, target);
+        p.increaseMoveCount();
 
         if (capturedPiece != null) {
-            piecesOnTheBoard.remove(capturedPiece);
-            capturedPieces.add(capturedPiece);
+            pushCaptured(capturedPiece);
         }
 
         // Special move Castling KingSide Rook
-        if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
-            Position sourceT = new Position(source.getRow(), source.getColumn() + 3);
-            Position targetT = new Position(source.getRow(), source.getColumn() + 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-            board.placePiece(rook, targetT);
-            rook.increaseMoveCount();
+        if (p instanceof King && target == source + 2) {
+            board.movePiece(source + 3, source + 1).increaseMoveCount();
         }
         // Special move Castling QueenSide Rook
-        if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
-            Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-            Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-            board.placePiece(rook, targetT);
-            rook.increaseMoveCount();
+        if (p instanceof King && target == source - 2) {
+            board.movePiece(source - 4, source - 1).increaseMoveCount();
         }
 
         // especial move en passant
 
         if (p instanceof Pawn) {
-            if (source.getColumn() != target.getColumn() && capturedPiece == null) {
-                Position pawnPosition;
-                if (p.getColor() == Color.White) {
-                    pawnPosition = new Position(target.getRow() + 1, target.getColumn());
-                } else {
-                    pawnPosition = new Position(target.getRow() - 1, target.getColumn());
-                }
-                capturedPiece = board.removePiece(pawnPosition);
-                capturedPieces.add(capturedPiece);
-                piecesOnTheBoard.remove(capturedPiece);
+            if ((source & 7) != (target & 7) && capturedPiece == null) {
+                // o peão capturado está atrás da casa de destino
+                int pawnSquare = (p.getColor() == Color.White) ? target + 8 : target - 8;
+                capturedPiece = board.removePiece(pawnSquare);
+                pushCaptured(capturedPiece);
             }
         }
 
+        hash ^= Zobrist.side() ^ Zobrist.castling(rights) ^ Zobrist.castling(castlingRights());
         return capturedPiece;
     }
 
+    /**
+     * Method pushCaptured
+     * Acrescenta uma peça capturada à pilha de peças capturadas.
+     */
+    private void pushCaptured(Piece piece) {
+        if (capturedCount == capturedPieces.length) {
+            capturedPieces = Arrays.copyOf(capturedPieces, capturedCount * 2);
+        }
+        capturedPieces[capturedCount++] = (ChessPiece) piece;
+    }
+
     /**
      * Metodo undoMove
      * Desfaz um movimento realizado no tabuleiro.
      * <p>
      * Este método remove a peça da posição de destino, decrementa seu contador
      * de movimentos, a coloca de volta na posição de origem e, se houver uma
-     * peça capturada, a repõe no tabuleiro e a move de volta para a lista de
-     * peças no tabuleiro, removendo-a da lista de peças capturadas. Também
-     * desfaz os movimentos especiais de roque e "en passant".
+     * peça capturada, a repõe no tabuleiro e retira-a do topo da pilha de peças
+     * capturadas. Também
+     * desfaz os movimentos especiais de roque e "en passant", repondo a chave de
+     * Zobrist.
      *
-     * @param source        A {@link Position} de origem do movimento a ser desfeito.
-     * @param target        A {@link Position} de destino do movimento a ser desfeito.
+     * @param source        A casa de origem do movimento a ser desfeito (0 a 63).
+     * @param target        A casa de destino do movimento a ser desfeito (0 a 63).
      * @param capturedPiece A peça capturada durante o movimento (pode ser `null`).
      */
-    private void undoMove(Position source, Position target, Piece capturedPiece) {
-        ChessPiece p = (ChessPiece) board.removePiece(target);
+    private void undoMove(int source, int target, Piece capturedPiece) {
+        movesCached = false;
+        int rights = castlingRights();
+        ChessPiece p = board.movePiece(target, source);
         p.decreaseMoveCount();
-        board.placePiece(p, source);
 
         if (capturedPiece != null) {
-            board.placePiece(capturedPiece, target);
-            capturedPieces.remove(capturedPiece);
-            piecesOnTheBoard.add(capturedPiece);
+            board.placePiece((ChessPiece) capturedPiece, target);
+            capturedPieces[--capturedCount] = null;
         }
 
         // Special move Castling KingSide Rook
-        if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
-            Position sourceT = new Position(source.getRow(), source.getColumn() + 3);
-            Position targetT = new Position(source.getRow(), source.getColumn() + 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-            board.placePiece(rook, sourceT);
-            rook.decreaseMoveCount();
+        if (p instanceof King && target == source + 2) {
+            board.movePiece(source + 1, source + 3).decreaseMoveCount();
         }
         // Special move Castling QueenSide Rook
-        if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
-            Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-            Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-            board.placePiece(rook, sourceT);
-            rook.decreaseMoveCount();
+        if (p instanceof King && target == source - 2) {
+            board.movePiece(source - 1, source - 4).decreaseMoveCount();
         }
 
         // especial move en passant
 
         if (p instanceof Pawn) {
-            if (source.getColumn() != target.getColumn() && capturedPiece == enPassantVulnerable) {
-                ChessPiece pawn = (ChessPiece) board.removePiece(target);
-                Position pawnPosition;
-                if (p.getColor() == Color.White) {
-                    pawnPosition = new Position(3, target.getColumn());
-                } else {
-                    pawnPosition = new Position(4, target.getColumn());
+            if ((source & 7) != (target & 7) && capturedPiece == enPassantVulnerable) {
+                // o peão capturado volta à quinta fila (a sua casa, se a captura foi normal)
+                int pawnSquare = ((p.getColor() == Color.White) ? 24 : 32) + (target & 7);
+                if (pawnSquare != target) {
+                    board.movePiece(target, pawnSquare);
                 }
-                board.placePiece(pawn, pawnPosition);
             }
         }
 
+        hash ^= Zobrist.side() ^ Zobrist.castling(rights) ^ Zobrist.castling(castlingRights());
+    }
+
+    /**
+     * Method setEnPassantVulnerable
+     * Define o peão vulnerável a "en passant", trocando a chave da coluna
+     * correspondente na chave de Zobrist.
+     *
+     * @param pawn O peão que acabou de avançar duas casas, ou `null`.
+     */
+    private void setEnPassantVulnerable(ChessPiece pawn) {
+        hash ^= enPassantKey;
+        enPassantKey = (pawn == null) ? 0L : Zobrist.enPassant(pawn.getSquare() & 7);
+        hash ^= enPassantKey;
+        enPassantVulnerable = pawn;
+    }
+
+    /**
+     * Method castlingRights
+     * Calcula os direitos de roque a partir do contador de movimentos dos Reis e
+     * das Torres nas suas casas iniciais.
+     *
+     * @return Os direitos de roque, combinados com os bits de {@link Zobrist}.
+     */
+    private int castlingRights() {
+        int rights = 0;
+        if (unmoved(60, PieceType.King, Color.White)) {
+            if (unmoved(63, PieceType.Rook, Color.White)) {
+                rights |= Zobrist.WHITE_KINGSIDE;
+            }
+            if (unmoved(56, PieceType.Rook, Color.White)) {
+                rights |= Zobrist.WHITE_QUEENSIDE;
+            }
+        }
+        if (unmoved(4, PieceType.King, Color.Black)) {
+            if (unmoved(7, PieceType.Rook, Color.Black)) {
+                rights |= Zobrist.BLACK_KINGSIDE;
+            }
+            if (unmoved(0, PieceType.Rook, Color.Black)) {
+                rights |= Zobrist.BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Method unmoved
+     * Verifica se a casa contém uma peça do tipo e cor indicados que ainda não se moveu.
+     */
+    private boolean unmoved(int square, PieceType type, Color color) {
+        ChessPiece p = board.pieceAt(square);
+        return p != null && p.getType() == type && p.getColor() == color && p.getMoveCount() == 0;
     }
 
     /**
@@ -354,7 +1273,7 @@ public class ChessMatch {
      * Valida a posição de origem de um movimento.
      * <p>
      * Este método verifica se existe uma peça na posição fornecida, se essa peça
-     * pertence ao jogador atual e se ela possui algum movimento possível. Se alguma
+     * pertence ao jogador atual e se ela possui algum movimento legal. Se alguma
      * dessas condições não for atendida, uma {@link ChessException} é lançada.
      *
      * @param position A {@link Position} a ser validada como posição de origem.
@@ -370,7 +1289,7 @@ public class ChessMatch {
             // comparar a cor
             throw new ChessException("The Chosen piece is not yours.");
         }
-        if (!board.piece(position).isThereAnyPossibleMove()) {
+        if (legalMovesMask(position) == 0) {
             throw new ChessException("There is no possible moves for the chosen piece.");
         }
     }
@@ -380,18 +1299,24 @@ public class ChessMatch {
      * Valida a posição de destino de um movimento.
      * <p>
      * Este método verifica se o movimento da peça na posição de origem para a
-     * posição de destino especificada é um movimento válido, utilizando o método
-     * {@link boardgame.Piece#possibleMove(Position)}. Se o movimento não for
-     * possível, uma {@link ChessException} é lançada.
+     * posição de destino especificada é um movimento legal, consultando a cache
+     * de movimentos do jogador atual ({@link #cacheMoves()}). Se o movimento não for possível para a
+     * peça, ou se deixar o próprio rei em xeque, uma {@link ChessException} é lançada.
      *
      * @param source A {@link Position} de origem da peça.
      * @param target A {@link Position} de destino do movimento.
-     * @throws ChessException Se o movimento da peça da origem para o destino não for permitido.
+     * @throws ChessException Se o movimento da peça da origem para o destino não
+     *                        for permitido ou colocar o jogador atual em xeque.
      */
     private void validateTargetPosition(Position source, Position target) {
-        if (!board.piece(source).possibleMove(target)) {
+        cacheMoves();
+        long bit = 1L << BitBoard.square(target);
+        if ((possibleMasks[BitBoard.square(source)] & bit) == 0) {
             throw new ChessException("The chosen piece can't move to target position");
         }
+        if ((legalMasks[BitBoard.square(source)] & bit) == 0) {
+            throw new ChessException("You can't put yourself in check");
+        }
     }
 
     /// Metodo Next Turn
@@ -422,52 +1347,39 @@ public class ChessMatch {
      * King
      * Retorna a peça do Rei da cor especificada que está atualmente no tabuleiro.
      * <p>
-     * Este método filtra a lista de peças no tabuleiro (`{@link #piecesOnTheBoard}`)
-     * para encontrar todas as peças da cor fornecida. Em seguida, itera sobre essa
-     * lista para identificar a instância da classe {@link King}.
+     * A casa do Rei é lida do bitboard de Reis dessa cor ({@link BitBoard#kingSquare(Color)}),
+     * que é mantido atualizado por {@link #makeMove(int, int)},
+     * {@link #undoMove(int, int, Piece)} e {@link #replacePromotedPiece(String)}
+     * através de {@link BitBoard#placePiece(ChessPiece, int)} e
+     * {@link BitBoard#removePiece(int)}. A consulta é O(1) e não cria listas.
      *
      * @param color A cor do Rei a ser encontrado ({@link Color}).
      * @return A peça do Rei da cor especificada.
      * @throws IllegalStateException Se não houver um Rei da cor especificada no tabuleiro.
      */
     private ChessPiece king(Color color) {
-        List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-                .collect(Collectors.toList());
-
-        for (Piece p : list) {
-            if (p instanceof King) {
-                return (ChessPiece) p;
-            }
+        int square = board.kingSquare(color);
+        if (square == 64) {
+            throw new IllegalStateException("There is no " + color + " king on the board");
         }
-        throw new IllegalStateException("There is no " + color + " king on the board");
+        return board.pieceAt(square);
     }
 
     /**
      * Metodo testCheck
      * Verifica se o rei da cor especificada está em xeque.
      * <p>
-     * Este método obtém a posição do rei da cor fornecida utilizando o método
-     * {@link #king(Color)} e converte essa posição de xadrez para uma posição
-     * na matriz do tabuleiro. Em seguida, itera sobre todas as peças adversárias
-     * no tabuleiro, obtendo seus movimentos possíveis. Se algum dos movimentos
-     * possíveis de uma peça adversária atinge a posição do rei, o método retorna
-     * `true`, indicando que o rei está em xeque.
+     * Este método obtém a casa do rei da cor fornecida utilizando o método
+     * {@link #king(Color)} e pergunta ao {@link BitBoard} se essa casa é atacada
+     * pelo adversário ({@link BitBoard#isAttacked(int, Color)}). A consulta parte
+     * da casa do rei (saltos de Cavalo e de Rei, diagonais de Peão e raios das
+     * peças deslizantes), sem calcular os movimentos das peças adversárias.
      *
      * @param color A cor do rei a ser verificada ({@link Color}).
      * @return `true` se o rei estiver em xeque, `false` caso contrário.
      */
     private boolean testCheck(Color color) {
-        Position kingPosition = king(color).getChessPosition().toPosition();
-        List<Piece> opponentPieces = piecesOnTheBoard.stream()
-                .filter(x -> ((ChessPiece) x).getColor() == opponent(color)).collect(Collectors.toList());
-
-        for (Piece p : opponentPieces) {
-            boolean[][] mat = p.possibleMoves();
-            if (mat[kingPosition.getRow()][kingPosition.getColumn()]) {
-                return true;
-            }
-        }
-        return false;
+        return board.isAttacked(king(color).getSquare(), opponent(color));
     }
 
     /**
@@ -478,17 +1390,9 @@ public class ChessMatch {
      * utilizando o método {@link #testCheck(Color)}. Se o rei não estiver em
      * xeque, então não há xeque-mate, e o método retorna `false`.
      * <p>
-     * Se o rei estiver em xeque, o método itera sobre todas as peças da cor
-     * fornecida no tabuleiro. Para cada peça, ele verifica todos os seus movimentos
-     * possíveis. Para cada movimento possível, o método simula o movimento
-     * (utilizando {@link #makeMove(Position, Position)}), verifica se o rei ainda
-     * está em xeque após o movimento (utilizando {@link #testCheck(Color)}), e
-     * então desfaz o movimento (utilizando {@link #undoMove(Position, Position, Piece)}).
-     * <p>
-     * Se existir algum movimento que retire o rei do xeque, o método retorna `false`,
-     * indicando que não há xeque-mate. Se não houver nenhum movimento possível para
-     * nenhuma das peças que retire o rei do xeque, o método retorna `true`,
-     * indicando que é xeque-mate.
+     * Se o rei estiver em xeque, procura um movimento legal peça a peça com
+     * {@link #hasLegalMove(Color)}, sem simular nenhum movimento no tabuleiro.
+     * Há xeque-mate se não houver nenhum movimento legal.
      *
      * @param color A cor do rei a ser verificada para xeque-mate ({@link Color}).
      * @return `true` se o rei estiver em xeque-mate, `false` caso contrário.
@@ -497,29 +1401,194 @@ public class ChessMatch {
         if (!testCheck(color)) {
             return false;
         }
-        List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-                .collect(Collectors.toList());
-
-        for (Piece p : list) {
-            boolean[][] mat = p.possibleMoves();
-            for (int i = 0; i < board.getRows(); i++) {
-                for (int j = 0; j < board.getColumns(); j++) {
-                    if (mat[i][j]) {
-                        Position source = ((ChessPiece) p).getChessPosition().toPosition();
-                        Position target = new Position(i, j);
-                        Piece capturedPiece = makeMove(source, target);
-                        boolean testCheck = testCheck(color);
-                        undoMove(source, target, capturedPiece);
-                        if (!testCheck) {
-                            return false;
-                        }
-                    }
-                }
+        return !hasLegalMove(color);
+    }
+
+    /**
+     * Method hasLegalMove
+     * Verifica se a cor indicada tem algum movimento legal, peça a peça (o Rei
+     * primeiro), parando no primeiro movimento legal encontrado.
+     *
+     * @param color A cor das peças.
+     * @return `true` se houver pelo menos um movimento legal.
+     */
+    private boolean hasLegalMove(Color color) {
+        int king = board.kingSquare(color);
+        long pieces = board.occupancy(color) & ~(1L << king);
+        int count = board.pieceAt(king).generateMoves(moveBuffer, 0);
+        while (filterLegalMoves(color, moveBuffer, 0, count) == 0) {
+            if (pieces == 0) {
+                return false;
             }
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            count = board.pieceAt(square).generateMoves(moveBuffer, 0);
         }
         return true;
     }
 
+    /**
+     * Method loadFen
+     * Lê uma posição em notação FEN (ver {@link #ChessMatch(CharSequence)}) para
+     * um tabuleiro vazio, com um único percurso pelos caracteres.
+     *
+     * @throws ChessException Se a notação for inválida.
+     */
+    private void loadFen(CharSequence fen) {
+        int length = fen.length();
+        int i = 0;
+
+        // 1. peças, da linha 8 para a linha 1
+        int square = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (square == 0 || (square & 7) != 0) {
+                    throw invalidFen(fen);
+                }
+            } else if (c >= '1' && c <= '8') {
+                square += c - '0';
+            } else {
+                int type = FEN_PIECES.indexOf(Character.toUpperCase(c));
+                if (type < 0 || square >= 64) {
+                    throw invalidFen(fen);
+                }
+                Color color = Character.isUpperCase(c) ? Color.White : Color.Black;
+                board.placePiece(newPiece(PieceType.of(type), color), square++);
+            }
+        }
+        if (square != 64 || board.kingSquare(Color.White) == 64 || board.kingSquare(Color.Black) == 64) {
+            throw invalidFen(fen);
+        }
+
+        // 2. jogador a mover
+        i = skipSpaces(fen, i);
+        if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw invalidFen(fen);
+        }
+        currentPlayer = (fen.charAt(i++) == 'w') ? Color.White : Color.Black;
+
+        // 3. direitos de roque
+        i = skipSpaces(fen, i);
+        int rights = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K':
+                    rights |= Zobrist.WHITE_KINGSIDE;
+                    break;
+                case 'Q':
+                    rights |= Zobrist.WHITE_QUEENSIDE;
+                    break;
+                case 'k':
+                    rights |= Zobrist.BLACK_KINGSIDE;
+                    break;
+                case 'q':
+                    rights |= Zobrist.BLACK_QUEENSIDE;
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw invalidFen(fen);
+            }
+        }
+        setInitialMoveCounts(rights);
+
+        // 4. casa "en passant": o peão vulnerável está à frente dela
+        i = skipSpaces(fen, i);
+        ChessPiece pawn = null;
+        if (i < length && fen.charAt(i) != '-') {
+            if (i + 1 >= length) {
+                throw invalidFen(fen);
+            }
+            int column = fen.charAt(i) - 'a';
+            int row = '8' - fen.charAt(i + 1);
+            if (column < 0 || column > 7 || (row != 2 && row != 5)) {
+                throw invalidFen(fen);
+            }
+            pawn = board.pieceAt(row * 8 + column + ((row == 2) ? 8 : -8));
+            if (pawn == null || pawn.getType() != PieceType.Pawn) {
+                throw invalidFen(fen);
+            }
+            i += 2;
+        } else {
+            i++;
+        }
+
+        // 5. e 6. relógio dos 50 lances e número do lance (opcionais)
+        i = skipSpaces(fen, i);
+        halfmoveClock = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            halfmoveClock = halfmoveClock * 10 + digit(fen, i);
+        }
+        i = skipSpaces(fen, i);
+        int fullmove = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            fullmove = fullmove * 10 + digit(fen, i);
+        }
+        turn = 2 * (Math.max(fullmove, 1) - 1) + ((currentPlayer == Color.White) ? 1 : 2);
+
+        hash = Zobrist.castling(castlingRights()) ^ ((currentPlayer == Color.Black) ? Zobrist.side() : 0L);
+        setEnPassantVulnerable(pawn);
+    }
+
+    /**
+     * Method setInitialMoveCounts
+     * Representa os direitos de roque de uma posição FEN no contador de
+     * movimentos das peças: só ficam por mover os Reis e as Torres com direito
+     * de roque e os Peões na sua linha inicial.
+     *
+     * @param rights Os direitos de roque, combinados com os bits de {@link Zobrist}.
+     */
+    private void setInitialMoveCounts(int rights) {
+        long occupied = board.occupancy();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = board.pieceAt(square);
+            boolean white = piece.getColor() == Color.White;
+            boolean unmoved;
+            switch (piece.getType()) {
+                case Pawn:
+                    unmoved = (square >>> 3) == (white ? 6 : 1);
+                    break;
+                case King:
+                    unmoved = square == (white ? 60 : 4) && (rights & (white
+                            ? Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE
+                            : Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE)) != 0;
+                    break;
+                case Rook:
+                    unmoved = (square == 63 && (rights & Zobrist.WHITE_KINGSIDE) != 0)
+                            || (square == 56 && (rights & Zobrist.WHITE_QUEENSIDE) != 0)
+                            || (square == 7 && (rights & Zobrist.BLACK_KINGSIDE) != 0)
+                            || (square == 0 && (rights & Zobrist.BLACK_QUEENSIDE) != 0);
+                    unmoved &= white == (square >= 56);
+                    break;
+                default:
+                    unmoved = true;
+            }
+            piece.setMoveCount(unmoved ? 0 : 1);
+        }
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digit(CharSequence fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') {
+            throw invalidFen(fen);
+        }
+        return c - '0';
+    }
+
+    private static ChessException invalidFen(CharSequence fen) {
+        return new ChessException("Invalid FEN: " + fen);
+    }
+
     /**
      * Metodo Place New Piece
      * Coloca uma nova peça no tabuleiro na posição de xadrez especificada.
@@ -528,8 +1597,6 @@ public class ChessMatch {
      * a ser colocada. Ele converte a notação de xadrez para uma {@link boardgame.Position}
      * utilizando {@link ChessPosition#toPosition()} e então utiliza o método
      * {@link Board#placePiece(Piece, Position)} para colocar a peça no tabuleiro.
-     * Finalmente, adiciona a peça à lista de peças ativas no tabuleiro
-     * (`piecesOnTheBoard`).
      *
      * @param column A coluna da posição de xadrez (de 'a' a 'h').
      * @param row    A linha da posição de xadrez (de 1 a 8).
@@ -537,7 +1604,6 @@ public class ChessMatch {
      */
     private void placeNewPiece(char column, int row, ChessPiece piece) {
         board.placePiece(piece, new ChessPosition(column, row).toPosition());
-        piecesOnTheBoard.add(piece);
     }
 
     /**
@@ -558,7 +1624,7 @@ public class ChessMatch {
         placeNewPiece('b', 1, new Knight(board, Color.White));
         placeNewPiece('c', 1, new Bishop(board, Color.White));
         placeNewPiece('d', 1, new Queen(board, Color.White));
-        placeNewPiece('e', 1, new King(board, Color.White, this));
+        placeNewPiece('e', 1, new King(board, Color.White));
         placeNewPiece('f', 1, new Bishop(board, Color.White));
         placeNewPiece('g', 1, new Knight(board, Color.White));
         placeNewPiece('h', 1, new Rook(board, Color.White));
@@ -577,7 +1643,7 @@ public class ChessMatch {
         placeNewPiece('b', 8, new Knight(board, Color.Black));
         placeNewPiece('c', 8, new Bishop(board, Color.Black));
         placeNewPiece('d', 8, new Queen(board, Color.Black));
-        placeNewPiece('e', 8, new King(board, Color.Black, this));
+        placeNewPiece('e', 8, new King(board, Color.Black));
         placeNewPiece('f', 8, new Bishop(board, Color.Black));
         placeNewPiece('g', 8, new Knight(board, Color.Black));
         placeNewPiece('h', 8, new Rook(board, Color.Black));
@@ -50,10 +50,98 @@ public abstract class ChessPiece extends Piece {
         moveCount--;
     }
 
+    /**
+     * Define o contador de movimentos, ao copiar uma peça para outra partida
+     * (ver {@link ChessMatch#ChessMatch(ChessMatch)}).
+     */
+    void setMoveCount(int moveCount) {
+        this.moveCount = moveCount;
+    }
+
     public ChessPosition getChessPosition() {
         return ChessPosition.fromPosition(position);
     }
 
+    /**
+     * @return O número da casa (0 a 63) onde a peça se encontra no {@link BitBoard}.
+     */
+    public int getSquare() {
+        return position.getRow() * 8 + position.getColumn();
+    }
+
+    /**
+     * @return O tipo desta peça de xadrez, utilizado como índice nos bitboards.
+     */
+    public abstract PieceType getType();
+
+    /**
+     * @return O tabuleiro desta peça, visto como {@link BitBoard}.
+     */
+    protected BitBoard getBitBoard() {
+        return (BitBoard) getBoard();
+    }
+
+    /**
+     * Method possibleMovesMask
+     * Retorna as casas de destino possíveis desta peça como uma máscara de bits
+     * (um bit por casa, ver {@link BitBoard}).
+     *
+     * @return A máscara das casas para onde a peça se pode mover.
+     */
+    public abstract long possibleMovesMask();
+
+    /**
+     * Method generateMoves
+     * Escreve os movimentos possíveis desta peça, codificados com {@link Move},
+     * no buffer fornecido, a partir da posição `count`. Apenas as casas presentes
+     * em {@link #possibleMovesMask()} são visitadas.
+     *
+     * @param moves O buffer de movimentos (reutilizável, fornecido pelo chamador).
+     * @param count O número de movimentos já escritos no buffer.
+     * @return O novo número de movimentos no buffer.
+     */
+    public int generateMoves(int[] moves, int count) {
+        int from = getSquare();
+        long occupied = getBitBoard().occupancy();
+        long mask = possibleMovesMask();
+        while (mask != 0) {
+            int to = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            moves[count++] = Move.of(from, to, ((occupied >>> to) & 1L) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    /**
+     * Method possibleMoves
+     * Vista de compatibilidade de {@link #possibleMovesMask()} como matriz booleana.
+     *
+     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
+     * `true` indica que a casa correspondente é um movimento possível.
+     */
+    @Override
+    public boolean[][] possibleMoves() {
+        return BitBoard.toMatrix(possibleMovesMask());
+    }
+
+    /**
+     * Method possibleMove
+     * Testa um único bit de {@link #possibleMovesMask()}, sem criar a matriz.
+     */
+    @Override
+    public boolean possibleMove(Position position) {
+        return (possibleMovesMask() & (1L << BitBoard.square(position))) != 0;
+    }
+
+    /**
+     * Method isThereAnyPossibleMove
+     * Verifica se a máscara de movimentos possíveis não está vazia.
+     */
+    @Override
+    public boolean isThereAnyPossibleMove() {
+        return possibleMovesMask() != 0;
+    }
+
     /**
      * Method is There Opponent Piece
      * Verifica se existe uma peça adversária na posição especificada.
@@ -0,0 +1,132 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+/**
+ * Class Move
+ * <p>
+ * Codificação compacta de um movimento num único `int`, utilizada pela geração
+ * de movimentos sem alocação ({@link ChessMatch#generateMoves(int[])}).
+ * <ul>
+ * <li>bits 0-5: casa de origem (0 a 63, numeração de {@link BitBoard});</li>
+ * <li>bits 6-11: casa de destino;</li>
+ * <li>bits 12-15: flags ({@link #CAPTURE}, {@link #DOUBLE_PAWN_PUSH}, {@link #EN_PASSANT}, {@link #CASTLING});</li>
+ * <li>bits 16-18: tipo da peça de promoção ({@link PieceType#ordinal()}), ou `0` se não houver promoção.</li>
+ * </ul>
+ */
+public final class Move {
+
+    /// Flags
+    /// CAPTURE o movimento captura uma peça (incluindo "en passant").
+    /// DOUBLE_PAWN_PUSH avanço de duas casas de um Peão.
+    /// EN_PASSANT captura especial "en passant".
+    /// CASTLING roque (pequeno ou grande, conforme a casa de destino).
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PAWN_PUSH = 2;
+    public static final int EN_PASSANT = 4;
+    public static final int CASTLING = 8;
+
+    /**
+     * Número máximo de movimentos de uma posição; tamanho recomendado do buffer
+     * passado a {@link ChessMatch#generateMoves(int[])}.
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private Move() {
+    }
+
+    /**
+     * Method of
+     * Codifica um movimento sem promoção.
+     *
+     * @param from  A casa de origem (0 a 63).
+     * @param to    A casa de destino (0 a 63).
+     * @param flags As flags do movimento.
+     * @return O movimento codificado.
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /**
+     * Method of
+     * Codifica um movimento de promoção.
+     *
+     * @param from      A casa de origem (0 a 63).
+     * @param to        A casa de destino (0 a 63).
+     * @param flags     As flags do movimento.
+     * @param promotion O tipo da peça escolhida para a promoção.
+     * @return O movimento codificado.
+     */
+    public static int of(int from, int to, int flags, PieceType promotion) {
+        return of(from, to, flags) | (promotion.ordinal() << 16);
+    }
+
+    // Getters
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (CAPTURE << 12)) != 0;
+    }
+
+    public static boolean isDoublePawnPush(int move) {
+        return (move & (DOUBLE_PAWN_PUSH << 12)) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & (EN_PASSANT << 12)) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & (CASTLING << 12)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move >>> 16) != 0;
+    }
+
+    /**
+     * @return O tipo da peça de promoção, ou `null` se o movimento não for uma promoção.
+     */
+    public static PieceType promotion(int move) {
+        int type = move >>> 16;
+        return type == 0 ? null : PieceType.of(type);
+    }
+
+    /**
+     * Method toString
+     * Representa o movimento em notação de coordenadas (e.g., "e2e4", "e7e8q").
+     *
+     * @param move O movimento codificado.
+     * @return A notação do movimento.
+     */
+    public static String toString(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        PieceType promotion = promotion(move);
+        if (promotion != null) {
+            sb.append("pnbrqk".charAt(promotion.ordinal()));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + (square & 7))).append(8 - (square >>> 3));
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+/**
+ * Class PieceSquareTables
+ * <p>
+ * Valores de material e de peça-casa ("piece-square tables") de cada peça em
+ * cada casa, com um termo de meio-jogo e um termo de final. As tabelas premeiam
+ * as casas onde cada tipo de peça costuma ser mais ativo (Cavalos no centro,
+ * Rei protegido no roque durante o meio-jogo e centralizado no final, Peões
+ * avançados, etc.).
+ * <p>
+ * As tabelas estão escritas do ponto de vista das brancas, com a numeração de
+ * casas de {@link BitBoard} (a8 é a casa 0 e h1 a casa 63); para as pretas a
+ * casa é espelhada verticalmente (`square ^ 56`) e o valor é negativo. Os
+ * valores de cada peça e casa são pré-calculados, para que o {@link BitBoard}
+ * atualize a avaliação em O(1) a cada colocação ou remoção de uma peça.
+ * <p>
+ * A fase do jogo é a soma dos pesos das peças no tabuleiro (Cavalo e Bispo 1,
+ * Torre 2, Rainha 4), de {@link #MAX_PHASE} na posição inicial até 0 quando só
+ * restam Reis e Peões.
+ */
+public final class PieceSquareTables {
+
+    /// Fase
+    /// PHASE peso de cada tipo de peça na fase do jogo, indexado por [PieceType#ordinal()].
+    /// MAX_PHASE fase da posição inicial (a fase é limitada a este valor após promoções).
+    private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+    public static final int MAX_PHASE = 24;
+
+    /// Valor de cada tipo de peça no meio-jogo e no final, indexado por [PieceType#ordinal()].
+    private static final int[] MG_VALUES = {82, 337, 365, 477, 1025, 0};
+    private static final int[] EG_VALUES = {94, 281, 297, 512, 936, 0};
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    /// Tabelas de meio-jogo, indexadas por [PieceType#ordinal()] e pela casa (vista das brancas).
+    private static final int[][] MG_TABLES = {
+            { // Pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            KNIGHT,
+            BISHOP,
+            { // Rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            QUEEN,
+            { // King
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            }
+    };
+
+    /// Tabelas de final, indexadas por [PieceType#ordinal()] e pela casa (vista das brancas).
+    private static final int[][] EG_TABLES = {
+            { // Pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    80, 80, 80, 80, 80, 80, 80, 80,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    30, 30, 30, 30, 30, 30, 30, 30,
+                    15, 15, 15, 15, 15, 15, 15, 15,
+                    5, 5, 5, 5, 5, 5, 5, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            KNIGHT,
+            BISHOP,
+            new int[64], // Rook
+            QUEEN,
+            { // King
+                    -50, -40, -30, -20, -20, -30, -40, -50,
+                    -30, -20, -10, 0, 0, -10, -20, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -30, 0, 0, 0, 0, -30, -30,
+                    -50, -30, -30, -30, -30, -30, -30, -50
+            }
+    };
+
+    /// Valores pré-calculados (material mais peça-casa, negativos para as pretas),
+    /// indexados por `color * 6 + type` e pela casa.
+    private static final int[][] MG = new int[12][64];
+    private static final int[][] EG = new int[12][64];
+
+    static {
+        for (Color color : Color.values()) {
+            int sign = (color == Color.White) ? 1 : -1;
+            int flip = (color == Color.White) ? 0 : 56;
+            for (PieceType type : PieceType.values()) {
+                int index = color.ordinal() * 6 + type.ordinal();
+                for (int square = 0; square < 64; square++) {
+                    MG[index][square] = sign * (MG_VALUES[type.ordinal()] + MG_TABLES[type.ordinal()][square ^ flip]);
+                    EG[index][square] = sign * (EG_VALUES[type.ordinal()] + EG_TABLES[type.ordinal()][square ^ flip]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return O valor de meio-jogo da peça na casa (positivo para as brancas, negativo para as pretas).
+     */
+    public static int middlegame(Color color, PieceType type, int square) {
+        return MG[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * @return O valor de final da peça na casa (positivo para as brancas, negativo para as pretas).
+     */
+    public static int endgame(Color color, PieceType type, int square) {
+        return EG[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * @return O peso do tipo de peça na fase do jogo.
+     */
+    public static int phase(PieceType type) {
+        return PHASE[type.ordinal()];
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+/**
+ * Enumeração
+ *
+ * Variareis
+ * Pawn, Knight, Bishop, Rook, Queen, King representam os tipos de peças no jogo de xadrez.
+ * <p>
+ * A ordem (ordinal) é utilizada como índice nos bitboards de {@link BitBoard}.
+ */
+public enum PieceType {
+
+    Pawn, Knight, Bishop, Rook, Queen, King;
+
+    /// VALUES os tipos pela ordem de [#ordinal()] ([#values()] cria uma cópia a cada chamada).
+    private static final PieceType[] VALUES = values();
+
+    /**
+     * Method of
+     * Retorna o tipo com o ordinal indicado, sem criar a cópia de {@link #values()}.
+     *
+     * @param ordinal O ordinal do tipo (0 a 5).
+     * @return O tipo de peça.
+     */
+    public static PieceType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * @author Daniel Gil
+ */
+package chess;
+
+/**
+ * Class Zobrist
+ * <p>
+ * Chaves aleatórias de 64 bits para o hashing de Zobrist das posições de uma
+ * {@link ChessMatch}. A chave de uma posição é o XOR das chaves de cada peça na
+ * sua casa, do jogador a mover, dos direitos de roque e da coluna "en passant".
+ * Como o XOR é a sua própria inversa, a chave é atualizada em O(1) a cada
+ * alteração do tabuleiro, sem percorrer as casas.
+ * <p>
+ * As chaves são geradas com uma semente fixa (SplitMix64), para que a mesma
+ * posição tenha sempre a mesma chave entre execuções.
+ */
+public final class Zobrist {
+
+    /// Variareis
+    /// PIECES chave de cada peça em cada casa, indexada por `color * 6 + type` e casa.
+    /// CASTLING chave de cada combinação dos quatro direitos de roque (a combinação vazia vale `0`).
+    /// EN_PASSANT chave da coluna do peão vulnerável a "en passant".
+    /// SIDE chave incluída quando é a vez das pretas.
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long SIDE;
+
+    /// Direitos de roque, combinados em bits
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static long seed = 0x5DEECE66DL;
+
+    static {
+        for (long[] keys : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = next();
+            }
+        }
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = next();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT[file] = next();
+        }
+        SIDE = next();
+    }
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Method next
+     * Gerador SplitMix64 utilizado apenas na inicialização das chaves.
+     */
+    private static long next() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return A chave da peça da cor e tipo indicados na casa indicada.
+     */
+    public static long piece(Color color, PieceType type, int square) {
+        return PIECES[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * @param rights Os direitos de roque ({@link #WHITE_KINGSIDE} | {@link #WHITE_QUEENSIDE} | ...).
+     * @return A chave da combinação de direitos de roque.
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return A chave da coluna (0 a 7) do peão vulnerável a "en passant".
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT[file];
+    }
+
+    /**
+     * @return A chave do jogador a mover (incluída quando jogam as pretas).
+     */
+    public static long side() {
+        return SIDE;
+    }
+}
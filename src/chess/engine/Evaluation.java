@@ -0,0 +1,44 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceSquareTables;
+
+/**
+ * Class Evaluation
+ * <p>
+ * Avaliação estática de uma posição: material e tabelas de peça-casa
+ * ({@link PieceSquareTables}), com um termo de meio-jogo e um termo de final
+ * interpolados pela fase do jogo ("tapered evaluation"): com todas as peças no
+ * tabuleiro conta apenas o meio-jogo e, à medida que as peças são trocadas, o
+ * final ganha peso.
+ * <p>
+ * Os dois termos e a fase são mantidos incrementalmente pela partida
+ * ({@link ChessMatch#getMiddlegameScore()}), pelo que a avaliação de uma folha é
+ * O(1) e não percorre o tabuleiro.
+ */
+public final class Evaluation {
+
+    /**
+     * Construtor privado: classe utilitária sem instâncias.
+     */
+    private Evaluation() {
+    }
+
+    /**
+     * Method evaluate
+     * Avalia a posição atual da partida do ponto de vista do jogador a mover.
+     *
+     * @param chessMatch A partida a avaliar.
+     * @return A pontuação em centésimos de Peão (positiva se o jogador a mover estiver melhor).
+     */
+    public static int evaluate(ChessMatch chessMatch) {
+        int phase = Math.min(chessMatch.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (chessMatch.getMiddlegameScore() * phase
+                + chessMatch.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return (chessMatch.getCurrentPlayer() == Color.White) ? score : -score;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class LazySmpSearch
+ * <p>
+ * Pesquisa em várias threads pelo método "Lazy SMP": todas as threads pesquisam
+ * a mesma posição, cada uma com a sua cópia da partida e a sua {@link Search},
+ * e partilham uma única {@link TranspositionTable}. A cooperação é feita apenas
+ * através da tabela: os resultados de uma thread cortam ou ordenam a pesquisa
+ * das outras.
+ * <p>
+ * A tabela não usa locks; cada entrada é validada pelo XOR da chave com os
+ * dados, pelo que uma entrada escrita a meio por outra thread é simplesmente
+ * ignorada. As threads auxiliares ímpares começam uma profundidade acima da
+ * thread principal, para que as threads não pesquisem sempre a mesma iteração.
+ * <p>
+ * A pesquisa termina quando a thread principal atinge um dos limites
+ * ({@link SearchLimits}); as threads auxiliares são então paradas
+ * ({@link Search#stop()}) e o resultado é o da iteração concluída mais profunda.
+ * O número máximo de nós conta apenas os nós da thread principal.
+ * <p>
+ * Enquanto o adversário pensa, a posição pode ser pesquisada em segundo plano
+ * ({@link #ponder(ChessMatch)}): os resultados ficam na tabela, e a pesquisa
+ * seguinte começa com a tabela já preenchida.
+ */
+public class LazySmpSearch implements AutoCloseable {
+
+    /// Variareis
+    /// table a tabela de transposição partilhada.
+    /// searches uma pesquisa por thread; a primeira é a principal.
+    /// executor as threads das pesquisas auxiliares (threads daemon).
+    /// ponderThread a thread da pesquisa em segundo plano, ou `null`.
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService executor;
+    private Thread ponderThread;
+
+    /**
+     * Construtor
+     *
+     * @param table   A tabela de transposição partilhada por todas as threads.
+     * @param threads O número de threads (pelo menos 1; a thread que chama
+     *                {@link #search(ChessMatch, SearchLimits)} é a principal).
+     * @throws IllegalArgumentException Se o número de threads for inferior a 1.
+     */
+    public LazySmpSearch(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        executor = (threads > 1) ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Method search
+     * Procura o melhor movimento do jogador atual com todas as threads.
+     *
+     * @param chessMatch A partida a analisar (não é alterada).
+     * @param limits     Os limites de profundidade, tempo e nós.
+     * @return O resultado da iteração concluída mais profunda, com o total de nós de todas as threads.
+     */
+    public SearchResult search(ChessMatch chessMatch, SearchLimits limits) {
+        stopPondering();
+        return run(chessMatch, limits);
+    }
+
+    /**
+     * Method ponder
+     * Inicia a pesquisa da posição numa thread em segundo plano, sem limites,
+     * até {@link #stopPondering()} ou à próxima {@link #search(ChessMatch, SearchLimits)}.
+     * O resultado é descartado; só interessa o que fica na tabela de transposição.
+     *
+     * @param chessMatch A partida a analisar (é copiada; pode ser alterada depois).
+     */
+    public void ponder(ChessMatch chessMatch) {
+        stopPondering();
+        ChessMatch position = new ChessMatch(chessMatch);
+        ponderThread = new Thread(() -> run(position, SearchLimits.INFINITE), "lazy-smp-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * Method stopPondering
+     * Para a pesquisa em segundo plano e espera pelo seu fim. O pedido de
+     * paragem é repetido enquanto a thread estiver viva, porque a pesquisa limpa
+     * os pedidos anteriores ao começar.
+     *
+     * @throws IllegalStateException Se a espera for interrompida.
+     */
+    public void stopPondering() {
+        Thread thread = ponderThread;
+        if (thread == null) {
+            return;
+        }
+        ponderThread = null;
+        try {
+            while (thread.isAlive()) {
+                searches[0].stop();
+                thread.join(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stopping the background search", e);
+        }
+    }
+
+    /**
+     * Method run
+     * Pesquisa com todas as threads, a partir da thread que chama.
+     */
+    private SearchResult run(ChessMatch chessMatch, SearchLimits limits) {
+        long start = System.nanoTime();
+        table.newSearch();
+
+        SearchLimits helperLimits = limits.withNodes(0);
+        List<Future<SearchResult>> helpers = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            int firstDepth = 1 + (i & 1);
+            helper.clearStop();
+            helpers.add(executor.submit(() -> helper.iterate(chessMatch, helperLimits, start, firstDepth)));
+        }
+
+        searches[0].clearStop();
+        SearchResult best;
+        try {
+            best = searches[0].iterate(chessMatch, limits, start, 1);
+        } finally {
+            for (int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+        }
+
+        long nodes = searches[0].getNodes();
+        for (int i = 0; i < helpers.size(); i++) {
+            SearchResult result = join(helpers.get(i));
+            nodes += searches[i + 1].getNodes();
+            if (result != null && result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getPv(), best.getScore(), best.getDepth(), nodes,
+                (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /**
+     * Method join
+     * Espera pelo fim de uma pesquisa auxiliar.
+     *
+     * @throws IllegalStateException Se a pesquisa auxiliar falhar ou a espera for interrompida.
+     */
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a helper search", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Method close
+     * Para a pesquisa em segundo plano e termina as threads auxiliares.
+     */
+    @Override
+    public void close() {
+        stopPondering();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
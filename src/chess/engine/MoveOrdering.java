@@ -0,0 +1,186 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Move;
+import chess.PieceType;
+
+/**
+ * Class MoveOrdering
+ * <p>
+ * Ordenação dos movimentos da pesquisa: quanto mais cedo for tentado o melhor
+ * movimento, mais cortes alfa-beta acontecem. Cada movimento recebe uma
+ * pontuação, por esta ordem de prioridade:
+ * <ol>
+ * <li>o movimento da tabela de transposição;</li>
+ * <li>as capturas e promoções a Rainha, por MVV-LVA (a vítima mais valiosa
+ * primeiro e, para a mesma vítima, o atacante menos valioso);</li>
+ * <li>os dois movimentos "killer" do nível, que causaram cortes noutros ramos
+ * com a mesma distância à raiz;</li>
+ * <li>os restantes movimentos, pela tabela de histórico (cortes causados pelo
+ * mesmo movimento, pesados pela profundidade);</li>
+ * <li>as sub-promoções.</li>
+ * </ol>
+ * Os movimentos não são ordenados de uma vez: {@link #pick(int[], int[], int, int)}
+ * escolhe apenas o próximo melhor, pelo que um corte logo nos primeiros
+ * movimentos evita o custo de ordenar os restantes.
+ * <p>
+ * Os "killers" e o histórico pertencem a uma única pesquisa (uma thread).
+ */
+public class MoveOrdering {
+
+    /// Pontuações de cada categoria
+    private static final int HASH_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int KILLER_SCORE = 90_000;
+    private static final int UNDERPROMOTION_SCORE = -1;
+
+    /// HISTORY_LIMIT valor a partir do qual o histórico é reduzido para metade,
+    /// para ficar sempre abaixo da pontuação dos "killers".
+    private static final int HISTORY_LIMIT = 80_000;
+
+    /// Variareis
+    /// killers dois movimentos "killer" por nível (o mais recente primeiro).
+    /// history pontuação de histórico por cor e por `origem * 64 + destino`.
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[][] history = new int[2][64 * 64];
+
+    /**
+     * Method newSearch
+     * Prepara uma nova pesquisa: apaga os "killers" (que dependem da posição da
+     * raiz) e reduz o histórico para metade, mantendo a tendência das pesquisas anteriores.
+     */
+    public void newSearch() {
+        for (int[] slots : killers) {
+            slots[0] = 0;
+            slots[1] = 0;
+        }
+        age();
+    }
+
+    /**
+     * Method score
+     * Calcula a pontuação de ordenação de cada movimento.
+     *
+     * @param chessMatch A partida, na posição dos movimentos.
+     * @param moves      Os movimentos.
+     * @param scores     O buffer onde são escritas as pontuações (mesmos índices de `moves`).
+     * @param count      O número de movimentos.
+     * @param hashMove   O movimento da tabela de transposição, ou `0`.
+     * @param ply        A distância à raiz (nível dos "killers").
+     */
+    public void score(ChessMatch chessMatch, int[] moves, int[] scores, int count, int hashMove, int ply) {
+        int[] history = this.history[chessMatch.getCurrentPlayer().ordinal()];
+        int killer0 = killers[ply][0];
+        int killer1 = killers[ply][1];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            PieceType promotion = Move.promotion(move);
+            if (move == hashMove) {
+                scores[i] = HASH_SCORE;
+            } else if (promotion != null && promotion != PieceType.Queen) {
+                scores[i] = UNDERPROMOTION_SCORE;
+            } else if (Move.isCapture(move) || promotion != null) {
+                scores[i] = CAPTURE_SCORE + mvvLva(chessMatch, move);
+            } else if (move == killer0) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[Move.from(move) * 64 + Move.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Method mvvLva
+     * Pontuação MVV-LVA de uma captura ou promoção: o valor da vítima (e da
+     * promoção) domina, e o atacante menos valioso desempata.
+     */
+    private static int mvvLva(ChessMatch chessMatch, int move) {
+        int victim;
+        if (Move.isEnPassant(move)) {
+            victim = PieceType.Pawn.ordinal();
+        } else {
+            ChessPiece captured = chessMatch.pieceAt(Move.to(move));
+            victim = (captured != null) ? captured.getType().ordinal() : 0;
+        }
+        if (Move.isPromotion(move)) {
+            victim += PieceType.Queen.ordinal();
+        }
+        int attacker = chessMatch.pieceAt(Move.from(move)).getType().ordinal();
+        return victim * 8 + (PieceType.King.ordinal() - attacker);
+    }
+
+    /**
+     * Method pick
+     * Seleciona o movimento de maior pontuação entre as posições `index` e
+     * `count - 1`, troca-o (e a sua pontuação) para a posição `index` e retorna-o.
+     *
+     * @param moves  Os movimentos.
+     * @param scores As pontuações de {@link #score(ChessMatch, int[], int[], int, int, int)}.
+     * @param index  A posição a preencher.
+     * @param count  O número de movimentos.
+     * @return O movimento na posição `index`.
+     */
+    public static int pick(int[] moves, int[] scores, int index, int count) {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        if (best != index) {
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Method cutoff
+     * Regista um corte beta causado por um movimento silencioso (sem captura nem
+     * promoção): o movimento passa a ser o primeiro "killer" do nível e ganha
+     * histórico proporcional ao quadrado da profundidade.
+     *
+     * @param color A cor do jogador que jogou o movimento.
+     * @param move  O movimento que causou o corte.
+     * @param ply   A distância à raiz.
+     * @param depth A profundidade restante no nó.
+     */
+    public void cutoff(Color color, int move, int ply, int depth) {
+        if (Move.isCapture(move) || Move.isPromotion(move)) {
+            return;
+        }
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] history = this.history[color.ordinal()];
+        int index = Move.from(move) * 64 + Move.to(move);
+        history[index] += depth * depth;
+        if (history[index] > HISTORY_LIMIT) {
+            age();
+        }
+    }
+
+    /**
+     * Method age
+     * Reduz todas as pontuações de histórico para metade.
+     */
+    private void age() {
+        for (int[] byColor : history) {
+            for (int i = 0; i < byColor.length; i++) {
+                byColor[i] >>= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Move;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Class Perft
+ * <p>
+ * Teste de desempenho e correção da geração de movimentos ("performance test"):
+ * conta as folhas da árvore de movimentos legais até uma dada profundidade, a
+ * partir da posição atual de uma {@link ChessMatch}.
+ * <p>
+ * Os movimentos são gerados com {@link ChessMatch#generateLegalMoves(int[])} e
+ * jogados e desfeitos com {@link ChessMatch#doMove(int)} e
+ * {@link ChessMatch#undoMove()}, pelo que os totais, comparados com valores de
+ * referência conhecidos, validam o roque, o "en passant" e a promoção. Os
+ * buffers de movimentos são alocados uma única vez, um por nível.
+ * <p>
+ * A contagem pode também ser feita em paralelo com um {@link TreeWalker}.
+ */
+public class Perft {
+
+    /// Variareis
+    /// chessMatch a partida cuja posição é analisada (é alterada durante a contagem e reposta no fim).
+    /// buffers um buffer de movimentos por nível da árvore.
+    private final ChessMatch chessMatch;
+    private int[][] buffers = new int[0][];
+
+    /**
+     * Construtor
+     *
+     * @param chessMatch A partida cuja posição atual será analisada.
+     */
+    public Perft(ChessMatch chessMatch) {
+        this.chessMatch = chessMatch;
+    }
+
+    /**
+     * Method perft
+     * Conta as folhas da árvore de movimentos legais até à profundidade indicada.
+     *
+     * @param depth A profundidade (número de meios-lances).
+     * @return O número de folhas.
+     */
+    public long perft(int depth) {
+        ensureBuffers(depth);
+        return count(depth);
+    }
+
+    /**
+     * Method divide
+     * Conta as folhas separadamente para cada movimento da raiz, entregando cada
+     * resultado ao consumidor indicado (movimento e número de folhas). Útil para
+     * localizar a divergência quando um total não coincide com o de referência.
+     *
+     * @param depth    A profundidade (número de meios-lances, pelo menos 1).
+     * @param consumer Recebe o número de folhas de cada movimento da raiz.
+     * @return O número total de folhas.
+     */
+    public long divide(int depth, ObjIntConsumer<Long> consumer) {
+        ensureBuffers(depth);
+        int[] moves = buffers[depth];
+        int count = chessMatch.generateLegalMoves(moves);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            chessMatch.doMove(moves[i]);
+            long nodes = count(depth - 1);
+            chessMatch.undoMove();
+            consumer.accept(nodes, moves[i]);
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Method perft
+     * Conta as folhas em paralelo, dividindo a árvore pelas threads do
+     * {@link TreeWalker} indicado. Cada subárvore é contada sequencialmente
+     * por um {@link Perft} próprio, sobre uma cópia da partida.
+     *
+     * @param depth  A profundidade (número de meios-lances).
+     * @param walker O percurso paralelo a utilizar.
+     * @return O número de folhas.
+     */
+    public long perft(int depth, TreeWalker walker) {
+        return walker.walk(chessMatch, depth, Perft::subtree);
+    }
+
+    /**
+     * Method divide
+     * Versão paralela de {@link #divide(int, ObjIntConsumer)} (ver {@link #perft(int, TreeWalker)}).
+     *
+     * @param depth    A profundidade (número de meios-lances, pelo menos 1).
+     * @param walker   O percurso paralelo a utilizar.
+     * @param consumer Recebe o número de folhas de cada movimento da raiz.
+     * @return O número total de folhas.
+     * @throws IllegalArgumentException Se a profundidade for inferior a 1.
+     */
+    public long divide(int depth, TreeWalker walker, ObjIntConsumer<Long> consumer) {
+        return walker.divide(chessMatch, depth, Perft::subtree, consumer);
+    }
+
+    private static long subtree(ChessMatch chessMatch, int depth) {
+        return new Perft(chessMatch).perft(depth);
+    }
+
+    /**
+     * Method count
+     * Contagem recursiva; no último nível conta os movimentos sem os jogar.
+     */
+    private long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = buffers[depth];
+        int count = chessMatch.generateLegalMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            chessMatch.doMove(moves[i]);
+            nodes += count(depth - 1);
+            chessMatch.undoMove();
+        }
+        return nodes;
+    }
+
+    private void ensureBuffers(int depth) {
+        if (buffers.length <= depth) {
+            buffers = new int[depth + 1][Move.MAX_MOVES];
+        }
+    }
+}
@@ -0,0 +1,434 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * Class Search
+ * <p>
+ * Pesquisa do melhor movimento de uma posição: negamax com cortes alfa-beta e
+ * aprofundamento iterativo (profundidade 1, 2, 3, ... até ao limite de
+ * profundidade ou de tempo). As folhas são resolvidas por uma pesquisa de
+ * quiescência (capturas e promoções) e avaliadas com {@link Evaluation}.
+ * <p>
+ * Os resultados de cada nó são guardados numa {@link TranspositionTable}: o
+ * melhor movimento de uma iteração é tentado primeiro na seguinte, e as
+ * posições já pesquisadas a profundidade suficiente não são pesquisadas de novo.
+ * Os restantes movimentos são ordenados por {@link MoveOrdering}.
+ * A variante principal é recolhida numa tabela triangular.
+ * <p>
+ * A pesquisa trabalha sobre uma cópia da partida ({@link ChessMatch#ChessMatch(ChessMatch)}),
+ * jogando e desfazendo os movimentos com {@link ChessMatch#doMove(int)} e
+ * {@link ChessMatch#undoMove()}; a partida original não é alterada.
+ */
+public class Search {
+
+    /// Pontuações
+    /// INFINITY maior do que qualquer pontuação.
+    /// MATE pontuação de xeque-mate na raiz; um mate em `n` meios-lances vale `MATE - n`.
+    /// MAX_PLY profundidade máxima da pesquisa (em meios-lances a partir da raiz).
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 128;
+
+    /// Variareis
+    /// CHECK_INTERVAL número de nós entre consultas do relógio (potência de dois).
+    private static final int CHECK_INTERVAL = 2048;
+
+    /// table a tabela de transposição (pode ser partilhada entre pesquisas).
+    /// chessMatch a cópia da partida pesquisada.
+    /// moves um buffer de movimentos por nível.
+    /// scores as pontuações de ordenação dos movimentos de cada nível.
+    /// ordering a ordenação dos movimentos ("killers" e histórico desta pesquisa).
+    /// exchange a avaliação estática de trocas da pesquisa de quiescência.
+    /// pv tabela triangular da variante principal: `pv[ply]` é a variante a partir de `ply`.
+    /// pvLength o comprimento de cada linha de `pv`.
+    /// nodes o número de nós visitados na pesquisa atual.
+    /// maxNodes o número máximo de nós da pesquisa atual, ou `0` sem limite.
+    /// deadline o instante ({@link System#nanoTime()}) em que a iteração em curso é abandonada.
+    /// timed indica se o relógio é consultado (falso durante a primeira iteração).
+    /// stoppable indica se a iteração atual pode ser abandonada (falso durante a primeira iteração).
+    /// stopRequested pedido de paragem feito por outra thread ([#stop()]).
+    /// stopped indica que a iteração atual deve ser abandonada.
+    private final TranspositionTable table;
+    private ChessMatch chessMatch;
+    private final int[][] moves = new int[MAX_PLY][Move.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][Move.MAX_MOVES];
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final StaticExchange exchange = new StaticExchange();
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean timed;
+    private boolean stoppable;
+    private volatile boolean stopRequested;
+    private boolean stopped;
+
+    /**
+     * Construtor
+     *
+     * @param table A tabela de transposição a utilizar.
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Method search
+     * Procura o melhor movimento do jogador atual, por aprofundamento iterativo.
+     * <p>
+     * A primeira iteração é sempre concluída; as seguintes são abandonadas se o
+     * tempo máximo ou o número máximo de nós for atingido, ou se a pesquisa for
+     * parada ({@link #stop()}), e o resultado é o da última iteração concluída.
+     * Depois do tempo ótimo não é iniciada uma nova iteração.
+     *
+     * @param chessMatch A partida a analisar (não é alterada).
+     * @param limits     Os limites de profundidade, tempo e nós.
+     * @return O resultado da última iteração concluída.
+     */
+    public SearchResult search(ChessMatch chessMatch, SearchLimits limits) {
+        table.newSearch();
+        clearStop();
+        return iterate(chessMatch, limits, System.nanoTime(), 1);
+    }
+
+    /**
+     * Method stop
+     * Pede a paragem da pesquisa em curso (a partir de outra thread). A
+     * iteração em curso é abandonada na próxima consulta do relógio.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Method iterate
+     * Aprofundamento iterativo a partir da profundidade indicada. Uma pesquisa
+     * auxiliar ({@link LazySmpSearch}) começa numa profundidade maior do que 1 e
+     * consulta o relógio desde o início, pelo que pode não concluir nenhuma iteração.
+     *
+     * @param chessMatch A partida a analisar (não é alterada).
+     * @param limits     Os limites de profundidade, tempo e nós.
+     * @param start      O instante ({@link System#nanoTime()}) de início da pesquisa.
+     * @param firstDepth A profundidade da primeira iteração.
+     * @return O resultado da última iteração concluída, ou `null` se nenhuma foi concluída.
+     */
+    SearchResult iterate(ChessMatch chessMatch, SearchLimits limits, long start, int firstDepth) {
+        this.chessMatch = new ChessMatch(chessMatch);
+        ordering.newSearch();
+        long hard = limits.hardNanos();
+        long soft = limits.softNanos(hard);
+        int maxDepth = limits.getDepth();
+        // a primeira iteração da pesquisa principal é sempre concluída
+        timed = firstDepth > 1 && hard > 0;
+        stoppable = firstDepth > 1;
+        deadline = start + hard;
+        maxNodes = limits.getNodes();
+        stopped = false;
+        nodes = 0;
+
+        SearchResult result = null;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            long elapsed = System.nanoTime() - start;
+            int[] line = principalVariation(depth);
+            result = new SearchResult(line, score, depth, nodes, elapsed / 1_000_000L);
+            // um mate encontrado não melhora com mais profundidade
+            if (isMateScore(score) && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+            // a próxima iteração dificilmente terminaria dentro do tempo ou do número de nós
+            if ((soft > 0 && elapsed >= soft) || (maxNodes > 0 && nodes >= maxNodes) || stopRequested) {
+                break;
+            }
+            timed = hard > 0;
+            stoppable = true;
+        }
+        return result;
+    }
+
+    /**
+     * Method principalVariation
+     * Retorna a variante principal da última iteração. Quando a variante foi
+     * cortada por uma entrada da tabela de transposição (e.g., escrita por outra
+     * thread ou numa pesquisa anterior), é completada com os movimentos guardados
+     * na tabela, enquanto forem legais, até à profundidade da iteração.
+     */
+    private int[] principalVariation(int depth) {
+        int length = pvLength[0];
+        int[] line = new int[Math.max(depth, length)];
+        System.arraycopy(pv[0], 0, line, 0, length);
+        for (int i = 0; i < length; i++) {
+            chessMatch.doMove(line[i]);
+        }
+        while (length < depth) {
+            long entry = table.probe(chessMatch.getHash());
+            int move = (entry != 0) ? TranspositionTable.move(entry) : 0;
+            if (move == 0 || !isLegal(move, moves[length])) {
+                break;
+            }
+            chessMatch.doMove(move);
+            line[length++] = move;
+        }
+        for (int i = 0; i < length; i++) {
+            chessMatch.undoMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * Method isLegal
+     * Verifica se um movimento lido da tabela é um dos movimentos legais da posição atual.
+     */
+    private boolean isLegal(int move, int[] buffer) {
+        int count = chessMatch.generateLegalMoves(buffer);
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return O número de nós visitados pela pesquisa atual (ou pela última).
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Limpa um pedido de paragem anterior, antes de uma nova pesquisa.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Method negamax
+     * Pesquisa alfa-beta de um nó, do ponto de vista do jogador a mover.
+     *
+     * @param depth A profundidade restante.
+     * @param ply   A distância (em meios-lances) à raiz.
+     * @param alpha O limite inferior da janela.
+     * @param beta  O limite superior da janela.
+     * @return A pontuação do nó (sem significado se a pesquisa tiver sido interrompida).
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        pvLength[ply] = ply;
+        if (visit()) {
+            return 0;
+        }
+        // repetição ou regra dos 50 lances: empate (a raiz é sempre pesquisada)
+        if (ply > 0 && (chessMatch.isRepetition() || chessMatch.isFiftyMoveRule())) {
+            return 0;
+        }
+
+        long key = chessMatch.getHash();
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = chessMatch.generateLegalMoves(list);
+        if (count == 0) {
+            return chessMatch.getCheck() ? -MATE + ply : 0;
+        }
+        int[] order = scores[ply];
+        ordering.score(chessMatch, list, order, count, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = MoveOrdering.pick(list, order, i, count);
+            chessMatch.doMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            chessMatch.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.cutoff(chessMatch.getCurrentPlayer(), move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Method quiescence
+     * Pesquisa de quiescência nas folhas: apenas capturas e promoções a Rainha
+     * são estendidas, até a posição ficar "calma", para que a avaliação não seja
+     * feita a meio de uma troca (efeito de horizonte).
+     * <p>
+     * O jogador a mover pode aceitar a avaliação estática ("stand pat") em vez
+     * de capturar. As capturas que perdem material segundo {@link StaticExchange}
+     * não são tentadas. Em xeque, todas as respostas legais são pesquisadas (e
+     * o xeque-mate é detetado).
+     *
+     * @param ply   A distância (em meios-lances) à raiz.
+     * @param alpha O limite inferior da janela.
+     * @param beta  O limite superior da janela.
+     * @return A pontuação do nó (sem significado se a pesquisa tiver sido interrompida).
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (visit()) {
+            return 0;
+        }
+        boolean inCheck = chessMatch.getCheck();
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(chessMatch);
+        }
+
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(chessMatch);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        int[] list = moves[ply];
+        int count = chessMatch.generateLegalMoves(list);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (!inCheck) {
+            int captures = 0;
+            for (int i = 0; i < count; i++) {
+                int move = list[i];
+                PieceType promotion = Move.promotion(move);
+                boolean tactical = (Move.isCapture(move) && (promotion == null || promotion == PieceType.Queen))
+                        || promotion == PieceType.Queen;
+                if (tactical && exchange.see(chessMatch, move) >= 0) {
+                    list[captures++] = move;
+                }
+            }
+            count = captures;
+        }
+        int[] order = scores[ply];
+        ordering.score(chessMatch, list, order, count, 0, ply);
+
+        for (int i = 0; i < count; i++) {
+            int move = MoveOrdering.pick(list, order, i, count);
+            chessMatch.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            chessMatch.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method visit
+     * Conta um nó e verifica o número máximo de nós; a cada {@link #CHECK_INTERVAL}
+     * nós, consulta também o relógio ({@link System#nanoTime()}) e o pedido de paragem.
+     *
+     * @return `true` se a iteração atual deve ser abandonada.
+     */
+    private boolean visit() {
+        nodes++;
+        if (stoppable && ((maxNodes > 0 && nodes >= maxNodes) || ((nodes & (CHECK_INTERVAL - 1)) == 0
+                && (stopRequested || (timed && System.nanoTime() - deadline > 0))))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Method updatePv
+     * A variante principal do nó passa a ser o movimento seguido da variante do filho.
+     */
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    /**
+     * Method isMateScore
+     *
+     * @param score Uma pontuação da pesquisa.
+     * @return `true` se a pontuação representar um xeque-mate (a favor ou contra).
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) > MATE - MAX_PLY;
+    }
+
+    /**
+     * Method toTable
+     * As pontuações de mate são guardadas relativas ao nó (e não à raiz), para
+     * continuarem válidas quando a posição é encontrada a outra distância da raiz.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score < -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score < -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+/**
+ * Class SearchLimits
+ * <p>
+ * Limites de uma pesquisa ({@link Search}, {@link LazySmpSearch}): profundidade
+ * máxima, tempo, instante limite ("deadline") e número máximo de nós. Os limites
+ * combinam-se: a pesquisa termina no primeiro que for atingido e devolve a
+ * última iteração concluída. O valor `0` significa "sem limite".
+ * <p>
+ * O tempo tem dois limites:
+ * <ul>
+ * <li>o tempo ótimo ("soft"): depois de concluir uma iteração, não é iniciada
+ * outra se este tempo já tiver passado, porque dificilmente terminaria;</li>
+ * <li>o tempo máximo ("hard"): a iteração em curso é abandonada, consultando o
+ * relógio a cada poucos milhares de nós.</li>
+ * </ul>
+ * As instâncias são imutáveis; os métodos `with...` retornam uma cópia alterada.
+ */
+public final class SearchLimits {
+
+    /// Gestão do tempo de uma partida
+    /// DEFAULT_MOVES_TO_GO número de lances estimado até ao fim do tempo, se não for indicado.
+    /// MOVE_OVERHEAD margem de segurança, em milissegundos, para a latência fora da pesquisa.
+    /// HARD_FACTOR o tempo máximo é, no máximo, este múltiplo do tempo ótimo.
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD = 50;
+    private static final int HARD_FACTOR = 3;
+
+    /// Sem limites (até {@link Search#MAX_PLY} - 1 de profundidade).
+    public static final SearchLimits INFINITE = new SearchLimits(Search.MAX_PLY - 1, 0, 0, 0, 0);
+
+    /// Variareis
+    /// depth a profundidade máxima.
+    /// softMillis o tempo ótimo em milissegundos.
+    /// hardMillis o tempo máximo em milissegundos.
+    /// deadline o instante limite ({@link System#currentTimeMillis()}).
+    /// nodes o número máximo de nós.
+    private final int depth;
+    private final long softMillis;
+    private final long hardMillis;
+    private final long deadline;
+    private final long nodes;
+
+    /**
+     * Construtor privado: utilizar os métodos de fábrica.
+     *
+     * @throws IllegalArgumentException Se a profundidade estiver fora dos limites ou algum limite for negativo.
+     */
+    private SearchLimits(int depth, long softMillis, long hardMillis, long deadline, long nodes) {
+        if (depth < 1 || depth >= Search.MAX_PLY) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + (Search.MAX_PLY - 1));
+        }
+        if (softMillis < 0 || hardMillis < 0 || deadline < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Search limits can't be negative");
+        }
+        this.depth = depth;
+        this.softMillis = softMillis;
+        this.hardMillis = hardMillis;
+        this.deadline = deadline;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return Limites de profundidade fixa.
+     */
+    public static SearchLimits depth(int depth) {
+        return INFINITE.withDepth(depth);
+    }
+
+    /**
+     * @return Limites de tempo fixo por lance, em milissegundos.
+     */
+    public static SearchLimits millis(long millis) {
+        return INFINITE.withMillis(millis);
+    }
+
+    /**
+     * @return Limites de um instante limite ({@link System#currentTimeMillis()}).
+     */
+    public static SearchLimits deadline(long deadline) {
+        return INFINITE.withDeadline(deadline);
+    }
+
+    /**
+     * @return Limites de um número máximo de nós.
+     */
+    public static SearchLimits nodes(long nodes) {
+        return INFINITE.withNodes(nodes);
+    }
+
+    /**
+     * Method clock
+     * Distribui o tempo restante de uma partida pelos lances que faltam: o tempo
+     * ótimo é a parte do tempo restante correspondente a um lance mais três
+     * quartos do incremento, e o tempo máximo é {@link #HARD_FACTOR} vezes o
+     * tempo ótimo. Ambos ficam abaixo do tempo restante menos uma margem de segurança.
+     *
+     * @param remaining O tempo restante no relógio, em milissegundos.
+     * @param increment O incremento por lance, em milissegundos.
+     * @param movesToGo O número de lances até ao próximo controlo de tempo, ou `0` se desconhecido.
+     * @return Os limites de tempo para o próximo lance.
+     */
+    public static SearchLimits clock(long remaining, long increment, int movesToGo) {
+        long available = Math.max(1, remaining - MOVE_OVERHEAD);
+        int moves = (movesToGo > 0) ? movesToGo : DEFAULT_MOVES_TO_GO;
+        long soft = Math.min(available, Math.max(1, available / moves + increment * 3 / 4));
+        long hard = Math.min(available, soft * HARD_FACTOR);
+        return new SearchLimits(INFINITE.depth, soft, hard, 0, 0);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, softMillis, hardMillis, deadline, nodes);
+    }
+
+    public SearchLimits withMillis(long millis) {
+        return new SearchLimits(depth, millis, millis, deadline, nodes);
+    }
+
+    public SearchLimits withDeadline(long deadline) {
+        return new SearchLimits(depth, softMillis, hardMillis, deadline, nodes);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, softMillis, hardMillis, deadline, nodes);
+    }
+
+    /**
+     * Getters
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getSoftMillis() {
+        return softMillis;
+    }
+
+    public long getHardMillis() {
+        return hardMillis;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Method hardNanos
+     * Converte os limites de tempo no tempo máximo da pesquisa a partir de agora,
+     * combinando o tempo máximo e o instante limite.
+     *
+     * @return O tempo máximo em nanossegundos, ou `0` se não houver limite de tempo.
+     */
+    long hardNanos() {
+        long millis = hardMillis;
+        if (deadline > 0) {
+            long left = Math.max(1, deadline - System.currentTimeMillis());
+            millis = (millis > 0) ? Math.min(millis, left) : left;
+        }
+        return millis * 1_000_000L;
+    }
+
+    /**
+     * @return O tempo ótimo em nanossegundos, limitado pelo tempo máximo, ou `0` se não houver.
+     */
+    long softNanos(long hardNanos) {
+        long soft = softMillis * 1_000_000L;
+        if (hardNanos == 0) {
+            return soft;
+        }
+        return (soft > 0) ? Math.min(soft, hardNanos) : hardNanos;
+    }
+}
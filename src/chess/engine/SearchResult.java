@@ -0,0 +1,99 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Class SearchResult
+ * <p>
+ * Resultado da última iteração completa de uma pesquisa ({@link Search}):
+ * melhor movimento, variante principal, pontuação, profundidade e número de nós.
+ */
+public class SearchResult {
+
+    /// Variareis
+    /// bestMove o melhor movimento (codificado com [Move]), ou `0` se a posição não tiver movimentos.
+    /// pv a variante principal: a sequência de movimentos esperada a partir da raiz.
+    /// score a pontuação do ponto de vista do jogador a mover (ver [Search#isMateScore(int)]).
+    /// depth a profundidade da última iteração completa.
+    /// nodes o número de nós visitados.
+    /// millis o tempo da pesquisa em milissegundos.
+    private final int bestMove;
+    private final int[] pv;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+
+    /**
+     * Construtor
+     *
+     * @param pv     A variante principal (o primeiro movimento é o melhor movimento).
+     * @param score  A pontuação.
+     * @param depth  A profundidade da última iteração completa.
+     * @param nodes  O número de nós visitados.
+     * @param millis O tempo da pesquisa em milissegundos.
+     */
+    public SearchResult(int[] pv, int score, int depth, long nodes, long millis) {
+        this.bestMove = (pv.length > 0) ? pv[0] : 0;
+        this.pv = pv;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    /**
+     * Getters
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int[] getPv() {
+        return Arrays.copyOf(pv, pv.length);
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Metodo toString
+     *
+     * @return Uma linha no formato "depth 6 score 35 nodes 123456 time 250 pv e2e4 e7e5 ...",
+     * com a pontuação de mate no formato "mate N" (em lances).
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth);
+        if (Search.isMateScore(score)) {
+            int plies = Search.MATE - Math.abs(score);
+            sb.append(" mate ").append((score > 0) ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            sb.append(" score ").append(score);
+        }
+        sb.append(" nodes ").append(nodes).append(" time ").append(millis).append(" pv");
+        for (int move : pv) {
+            sb.append(' ').append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+}
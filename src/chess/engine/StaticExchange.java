@@ -0,0 +1,103 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Move;
+import chess.PieceType;
+
+/**
+ * Class StaticExchange
+ * <p>
+ * Avaliação estática de trocas ("static exchange evaluation", SEE): calcula o
+ * ganho material de uma captura, supondo que ambos os jogadores continuam a
+ * capturar na mesma casa com a peça menos valiosa disponível, e que cada um pode
+ * parar quando continuar lhe for desfavorável.
+ * <p>
+ * A sequência é calculada apenas com consultas de ataque
+ * ({@link ChessMatch#attackersTo(int, long)}), retirando da ocupação cada peça
+ * que captura, para que as peças atrás dela no mesmo raio ("raios X") entrem na
+ * troca. Nenhum movimento é jogado no tabuleiro.
+ * <p>
+ * Cada instância guarda o seu buffer de ganhos, pelo que deve ser utilizada por
+ * uma única pesquisa (uma thread).
+ */
+public class StaticExchange {
+
+    /// Valor de cada tipo de peça na troca, indexado por [PieceType#ordinal()].
+    /// O Rei vale mais do que todas as outras peças juntas: capturá-lo termina a troca.
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+
+    /// MAX_EXCHANGES número máximo de capturas numa casa (todas as peças do tabuleiro).
+    private static final int MAX_EXCHANGES = 32;
+
+    /// gain o ganho acumulado após cada captura da sequência.
+    private final int[] gain = new int[MAX_EXCHANGES];
+
+    /**
+     * Method see
+     * Calcula o ganho material de uma captura (ou promoção) para o jogador que a faz.
+     *
+     * @param chessMatch A partida, na posição anterior ao movimento.
+     * @param move       O movimento, codificado com {@link Move}.
+     * @return O ganho material esperado em centésimos de Peão (negativo se a troca perder material).
+     */
+    public int see(ChessMatch chessMatch, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece mover = chessMatch.pieceAt(from);
+        long occupied = chessMatch.occupancy() ^ (1L << from);
+
+        if (Move.isEnPassant(move)) {
+            gain[0] = VALUES[PieceType.Pawn.ordinal()];
+            occupied ^= 1L << (to + ((mover.getColor() == Color.White) ? 8 : -8));
+        } else {
+            ChessPiece captured = chessMatch.pieceAt(to);
+            gain[0] = (captured != null) ? VALUES[captured.getType().ordinal()] : 0;
+        }
+        int onSquare = VALUES[mover.getType().ordinal()];
+        PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            gain[0] += VALUES[promotion.ordinal()] - VALUES[PieceType.Pawn.ordinal()];
+            onSquare = VALUES[promotion.ordinal()];
+        }
+
+        Color side = (mover.getColor() == Color.White) ? Color.Black : Color.White;
+        int depth = 0;
+        while (depth + 1 < MAX_EXCHANGES) {
+            long attackers = chessMatch.attackersTo(to, occupied) & occupied & chessMatch.occupancy(side);
+            if (attackers == 0) {
+                break;
+            }
+            // a peça menos valiosa do jogador a capturar
+            PieceType type = null;
+            long attacker = 0;
+            for (int t = 0; t <= PieceType.King.ordinal(); t++) {
+                PieceType candidate = PieceType.of(t);
+                long pieces = attackers & chessMatch.pieces(side, candidate);
+                if (pieces != 0) {
+                    type = candidate;
+                    attacker = pieces & -pieces;
+                    break;
+                }
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            // nenhum dos jogadores ganha em continuar
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                break;
+            }
+            occupied ^= attacker;
+            onSquare = VALUES[type.ordinal()];
+            side = (side == Color.White) ? Color.Black : Color.White;
+        }
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+}
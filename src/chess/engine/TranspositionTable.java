@@ -0,0 +1,181 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Class TranspositionTable
+ * <p>
+ * Tabela de transposição de tamanho fixo para resultados de pesquisa e análise
+ * (profundidade, pontuação, tipo de limite e melhor movimento), indexada pela
+ * chave de Zobrist da posição ({@link chess.ChessMatch#getHash()}).
+ * <p>
+ * A tabela tem um número de entradas potência de dois e vive fora do heap, em
+ * {@link ByteBuffer}s diretos de até 1 GiB cada, para que tabelas de vários GB
+ * não aumentem o trabalho do coletor de lixo. Cada entrada ocupa 16 bytes:
+ * <ul>
+ * <li>a chave XOR os dados, para validar a entrada sem locks;</li>
+ * <li>os dados, empacotados num `long` (ver {@link #pack(int, int, int, int, int)}).</li>
+ * </ul>
+ * A substituição prefere a profundidade: uma entrada só é substituída por outra
+ * de menor profundidade se pertencer a uma pesquisa anterior ({@link #newSearch()}).
+ */
+public class TranspositionTable {
+
+    /// Tipos de limite da pontuação
+    /// UPPER a pontuação é um limite superior (nenhum movimento superou alpha).
+    /// LOWER a pontuação é um limite inferior (corte beta).
+    /// EXACT a pontuação é exata.
+    public static final int UPPER = 1;
+    public static final int LOWER = 2;
+    public static final int EXACT = 3;
+
+    /// Variareis
+    /// ENTRY_SHIFT log2 do tamanho de cada entrada (16 bytes).
+    /// SEGMENT_SHIFT log2 do número de entradas por segmento (1 GiB por segmento).
+    private static final int ENTRY_SHIFT = 4;
+    private static final int SEGMENT_SHIFT = 30 - ENTRY_SHIFT;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /// segments os buffers diretos que guardam as entradas.
+    /// mask máscara aplicada à chave para obter o índice da entrada (`capacity - 1`).
+    /// generation geração da pesquisa atual, guardada em cada entrada para a substituição.
+    private final ByteBuffer[] segments;
+    private final long mask;
+    private int generation;
+
+    /**
+     * Construtor
+     * reserva uma tabela com, no máximo, o tamanho indicado.
+     *
+     * @param megabytes O tamanho máximo da tabela em MB (arredondado para baixo
+     *                  para uma potência de dois de entradas).
+     * @throws IllegalArgumentException Se o tamanho for inferior a 1 MB.
+     */
+    public TranspositionTable(long megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        long capacity = Long.highestOneBit((megabytes << 20) >>> ENTRY_SHIFT);
+        mask = capacity - 1;
+
+        long segmentEntries = Math.min(capacity, 1L << SEGMENT_SHIFT);
+        segments = new ByteBuffer[(int) (capacity / segmentEntries)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) (segmentEntries << ENTRY_SHIFT)).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * @return O número de entradas da tabela.
+     */
+    public long capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Method newSearch
+     * Inicia uma nova geração: as entradas das pesquisas anteriores passam a poder
+     * ser substituídas por entradas de menor profundidade.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Method clear
+     * Apaga todas as entradas da tabela.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int i = 0; i < segment.capacity(); i += 8) {
+                segment.putLong(i, 0L);
+            }
+        }
+        generation = 0;
+    }
+
+    /**
+     * Method probe
+     * Procura a entrada da posição com a chave indicada.
+     *
+     * @param key A chave de Zobrist da posição.
+     * @return Os dados empacotados da entrada, ou `0` se a posição não estiver na tabela.
+     */
+    public long probe(long key) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+        int offset = (int) ((index & SEGMENT_MASK) << ENTRY_SHIFT);
+        long data = segment.getLong(offset + 8);
+        return (segment.getLong(offset) ^ data) == key ? data : 0L;
+    }
+
+    /**
+     * Method store
+     * Guarda o resultado da pesquisa de uma posição, respeitando a política de
+     * substituição por profundidade.
+     *
+     * @param key   A chave de Zobrist da posição.
+     * @param move  O melhor movimento encontrado (codificado com {@link chess.Move}), ou `0`.
+     * @param score A pontuação (entre -32768 e 32767).
+     * @param depth A profundidade pesquisada (0 a 255).
+     * @param bound O tipo de limite ({@link #UPPER}, {@link #LOWER} ou {@link #EXACT}).
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+        int offset = (int) ((index & SEGMENT_MASK) << ENTRY_SHIFT);
+        long oldData = segment.getLong(offset + 8);
+        boolean sameKey = (segment.getLong(offset) ^ oldData) == key;
+
+        if (oldData != 0 && depth < depth(oldData) && generation(oldData) == generation) {
+            return;
+        }
+        // mantém o melhor movimento anterior da mesma posição se este não tiver nenhum
+        if (move == 0 && sameKey) {
+            move = move(oldData);
+        }
+        long data = pack(move, score, depth, bound, generation);
+        segment.putLong(offset, key ^ data);
+        segment.putLong(offset + 8, data);
+    }
+
+    /**
+     * Method pack
+     * Empacota os dados de uma entrada num `long`:
+     * bits 0-19 movimento, 20-35 pontuação, 36-43 profundidade,
+     * 44-45 tipo de limite e 46-53 geração.
+     */
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & 0xFFFFFL)
+                | ((score & 0xFFFFL) << 20)
+                | ((long) (depth & 0xFF) << 36)
+                | ((long) bound << 44)
+                | ((long) generation << 46);
+    }
+
+    // Getters dos dados empacotados
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 20);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 36) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 44) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 46) & 0xFF);
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Class TreeWalker
+ * <p>
+ * Percorre em paralelo a árvore de movimentos legais de uma posição, num
+ * {@link ForkJoinPool}. Cada movimento da raiz é jogado numa cópia da partida
+ * ({@link ChessMatch#ChessMatch(ChessMatch)}) e a sua subárvore é entregue a uma
+ * tarefa própria; as subárvores com pelo menos {@link #getSplitDepth()} níveis
+ * voltam a ser divididas da mesma forma, para que as posições com poucos
+ * movimentos não deixem núcleos parados.
+ * <p>
+ * As subárvores restantes são calculadas sequencialmente por uma
+ * {@link SubtreeFunction} (e.g., o perft de {@link Perft}, ou qualquer contagem
+ * ou análise em massa), cujos resultados são somados. A partida original nunca
+ * é alterada.
+ */
+public class TreeWalker {
+
+    /**
+     * Profundidade mínima, por omissão, de uma subárvore (abaixo da raiz) para
+     * que seja dividida em novas tarefas: as subárvores mais pequenas não
+     * compensam o custo de copiar a partida.
+     */
+    public static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    /**
+     * Interface SubtreeFunction
+     * Cálculo sequencial de uma subárvore. É chamado em paralelo por várias
+     * threads, cada uma com a sua própria cópia da partida, pelo que não deve
+     * partilhar estado mutável entre chamadas.
+     */
+    @FunctionalInterface
+    public interface SubtreeFunction {
+        /**
+         * @param chessMatch A partida na raiz da subárvore (pode ser alterada,
+         *                   desde que a posição seja reposta no fim).
+         * @param depth      A profundidade restante (número de meios-lances).
+         * @return O resultado da subárvore, somado aos das restantes.
+         */
+        long apply(ChessMatch chessMatch, int depth);
+    }
+
+    /// Variareis
+    /// pool o pool de threads onde as tarefas são executadas.
+    /// splitDepth profundidade mínima de uma subárvore para ser dividida.
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Construtor
+     * utiliza o pool comum ({@link ForkJoinPool#commonPool()}) e a profundidade
+     * de divisão {@link #DEFAULT_SPLIT_DEPTH}.
+     */
+    public TreeWalker() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param pool       O pool de threads onde as tarefas são executadas.
+     * @param splitDepth A profundidade mínima de uma subárvore (abaixo da raiz)
+     *                   para ser dividida em novas tarefas.
+     * @throws IllegalArgumentException Se a profundidade de divisão for inferior a 1.
+     */
+    public TreeWalker(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 1) {
+            throw new IllegalArgumentException("Split depth must be at least 1");
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    public int getSplitDepth() {
+        return splitDepth;
+    }
+
+    /**
+     * Method walk
+     * Calcula a soma dos resultados de todas as subárvores da posição atual da
+     * partida até à profundidade indicada.
+     *
+     * @param chessMatch A partida na raiz (não é alterada).
+     * @param depth      A profundidade (número de meios-lances).
+     * @param function   O cálculo sequencial de cada subárvore.
+     * @return A soma dos resultados.
+     */
+    public long walk(ChessMatch chessMatch, int depth, SubtreeFunction function) {
+        if (depth == 0) {
+            return function.apply(new ChessMatch(chessMatch), 0);
+        }
+        return pool.invoke(new WalkTask(new ChessMatch(chessMatch), depth, function, true));
+    }
+
+    /**
+     * Method divide
+     * Como {@link #walk(ChessMatch, int, SubtreeFunction)}, entregando também o
+     * resultado de cada movimento da raiz ao consumidor indicado, pela ordem de
+     * {@link ChessMatch#generateLegalMoves(int[])} e na thread que chama o método.
+     *
+     * @param chessMatch A partida na raiz (não é alterada).
+     * @param depth      A profundidade (número de meios-lances, pelo menos 1).
+     * @param function   O cálculo sequencial de cada subárvore.
+     * @param consumer   Recebe o resultado de cada movimento da raiz.
+     * @return A soma dos resultados.
+     * @throws IllegalArgumentException Se a profundidade for inferior a 1.
+     */
+    public long divide(ChessMatch chessMatch, int depth, SubtreeFunction function, ObjIntConsumer<Long> consumer) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = chessMatch.generateLegalMoves(moves);
+        List<WalkTask> tasks = children(chessMatch, moves, count, depth - 1, function);
+        for (WalkTask task : tasks) {
+            pool.execute(task);
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long result = tasks.get(i).join();
+            consumer.accept(result, moves[i]);
+            total += result;
+        }
+        return total;
+    }
+
+    /**
+     * Method children
+     * Cria uma tarefa por movimento, cada uma com a sua cópia da partida, na
+     * posição depois do movimento.
+     */
+    private List<WalkTask> children(ChessMatch chessMatch, int[] moves, int count, int depth, SubtreeFunction function) {
+        List<WalkTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChessMatch child = new ChessMatch(chessMatch);
+            child.doMove(moves[i]);
+            tasks.add(new WalkTask(child, depth, function, false));
+        }
+        return tasks;
+    }
+
+    /**
+     * Class WalkTask
+     * Tarefa de uma subárvore: divide-a por movimento se for a raiz ou tiver
+     * pelo menos {@link #splitDepth} níveis, e calcula-a sequencialmente caso
+     * contrário.
+     */
+    private final class WalkTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ChessMatch chessMatch;
+        private final int depth;
+        private final SubtreeFunction function;
+        private final boolean root;
+
+        WalkTask(ChessMatch chessMatch, int depth, SubtreeFunction function, boolean root) {
+            this.chessMatch = chessMatch;
+            this.depth = depth;
+            this.function = function;
+            this.root = root;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth == 0 || (!root && depth < splitDepth)) {
+                return function.apply(chessMatch, depth);
+            }
+            int[] moves = new int[Move.MAX_MOVES];
+            int count = chessMatch.generateLegalMoves(moves);
+            List<WalkTask> tasks = children(chessMatch, moves, count, depth - 1, function);
+            long total = 0;
+            for (WalkTask task : invokeAll(tasks)) {
+                total += task.join();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.io;
+
+import chess.ChessMatch;
+import chess.Move;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Class GameArchive
+ * <p>
+ * Leitor de um arquivo binário de partidas escrito por {@link GameArchiveWriter}
+ * (o formato está descrito nessa classe). O ficheiro é mapeado em memória
+ * ({@link MappedByteBuffer}) e o índice no fim do ficheiro dá a posição de cada
+ * partida, pelo que qualquer partida é lida diretamente, sem ler as anteriores.
+ * <p>
+ * Os movimentos são descodificados repetindo a partida: o índice de cada
+ * movimento refere-se à lista de movimentos legais da posição
+ * ({@link ChessMatch#generateLegalMoves(int[])}). Cada instância tem o seu
+ * buffer de movimentos, pelo que deve ser utilizada por uma única thread.
+ */
+public class GameArchive {
+
+    /// Formato do ficheiro
+    /// MAGIC identificador no início do ficheiro ("CHGA").
+    /// VERSION versão do formato.
+    /// HEADER_SIZE tamanho do cabeçalho, em bytes.
+    /// RESULTS os resultados, indexados pelo código guardado em cada partida.
+    /// MAX_SIZE o tamanho máximo do ficheiro, que é mapeado num único [MappedByteBuffer].
+    static final int MAGIC = 0x43484741;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+    static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    /// Variareis
+    /// buffer o conteúdo do ficheiro, mapeado em memória.
+    /// games o número de partidas.
+    /// indexOffset a posição do índice das partidas no ficheiro.
+    /// moves buffer dos movimentos legais da posição atual.
+    private final MappedByteBuffer buffer;
+    private final int games;
+    private final int indexOffset;
+    private final int[] moves = new int[Move.MAX_MOVES];
+
+    /**
+     * Construtor
+     * mapeia o ficheiro em memória e lê o cabeçalho.
+     *
+     * @param path O ficheiro do arquivo.
+     * @throws IOException Se o ficheiro não puder ser lido, não for um arquivo de partidas,
+     *                     ou for maior do que o que um {@link MappedByteBuffer} pode mapear (2 GB).
+     */
+    public GameArchive(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_SIZE) {
+                throw new IOException("Game archive too large to map: " + path);
+            }
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a game archive: " + path);
+            }
+            // o mapeamento continua válido depois de o canal ser fechado
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException("Not a game archive: " + path);
+        }
+        games = buffer.getInt(8);
+        long offset = buffer.getLong(12);
+        if (games < 0 || offset < HEADER_SIZE || offset + (long) games * Long.BYTES > buffer.capacity()) {
+            throw new IOException("Corrupt game archive index: " + path);
+        }
+        indexOffset = (int) offset;
+    }
+
+    /**
+     * @return O número de partidas no arquivo.
+     */
+    public int size() {
+        return games;
+    }
+
+    /**
+     * @return O resultado da partida ("1-0", "0-1", "1/2-1/2" ou "*").
+     */
+    public String getResult(int game) {
+        return RESULTS[buffer.get(offset(game)) & 3];
+    }
+
+    /**
+     * @return O número de movimentos da partida.
+     */
+    public int getMoveCount(int game) {
+        int offset = offset(game);
+        return buffer.getChar(offset + 3 + buffer.getChar(offset + 1));
+    }
+
+    /**
+     * @return A posição FEN em que a partida começa.
+     */
+    public String getInitialFen(int game) {
+        int offset = offset(game);
+        int length = buffer.getChar(offset + 1);
+        if (length == 0) {
+            return ChessMatch.START_FEN;
+        }
+        byte[] fen = new byte[length];
+        buffer.get(offset + 3, fen);
+        return new String(fen, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Method read
+     * Repete uma partida a partir da sua posição inicial. Os movimentos ficam no
+     * histórico da partida ({@link ChessMatch#getMoveHistory()}) e podem ser
+     * desfeitos; o último é jogado com {@link ChessMatch#playMove(int)}, para que
+     * o xeque-mate, o empate e a peça promovida fiquem atualizados.
+     *
+     * @param game O número da partida (a partir de 0).
+     * @return A partida, na posição final.
+     * @throws IndexOutOfBoundsException Se a partida não existir.
+     * @throws IllegalStateException     Se um movimento não corresponder a um movimento legal.
+     */
+    public ChessMatch read(int game) {
+        int offset = offset(game);
+        int fenLength = buffer.getChar(offset + 1);
+        ChessMatch chessMatch = (fenLength == 0) ? new ChessMatch() : new ChessMatch(getInitialFen(game));
+        int position = offset + 3 + fenLength;
+        int count = buffer.getChar(position);
+        position += 2;
+        for (int i = 0; i < count; i++) {
+            int legal = chessMatch.generateLegalMoves(moves);
+            int index = buffer.get(position + i) & 0xFF;
+            if (index >= legal) {
+                throw new IllegalStateException("Corrupt move " + (i + 1) + " in archived game " + game);
+            }
+            if (i < count - 1) {
+                chessMatch.doMove(moves[index]);
+            } else {
+                chessMatch.playMove(moves[index]);
+            }
+        }
+        return chessMatch;
+    }
+
+    /**
+     * @return A posição da partida no ficheiro, lida do índice.
+     */
+    private int offset(int game) {
+        Objects.checkIndex(game, games);
+        return (int) buffer.getLong(indexOffset + game * Long.BYTES);
+    }
+}
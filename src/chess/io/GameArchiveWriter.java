@@ -0,0 +1,224 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.io;
+
+import chess.ChessMatch;
+import chess.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Class GameArchiveWriter
+ * <p>
+ * Escreve partidas num arquivo binário, lido por {@link GameArchive}. Cada
+ * movimento é guardado num único byte: o seu índice na lista de movimentos
+ * legais da posição ({@link ChessMatch#generateLegalMoves(int[])}), que tem no
+ * máximo {@link Move#MAX_MOVES} movimentos.
+ * <p>
+ * Formato do ficheiro (inteiros "big-endian"):
+ * <ul>
+ * <li>cabeçalho ({@value GameArchive#HEADER_SIZE} bytes): identificador
+ * {@link GameArchive#MAGIC} (4), versão (2), reservado (2), número de partidas (4)
+ * e posição do índice no ficheiro (8);</li>
+ * <li>as partidas: resultado (1), tamanho da posição FEN inicial (2, `0` para a
+ * posição inicial padrão) seguido dos seus bytes ASCII, número de movimentos (2)
+ * e os índices dos movimentos (1 cada);</li>
+ * <li>o índice: a posição no ficheiro de cada partida (8 cada), que permite
+ * encontrar a partida N sem ler as anteriores.</li>
+ * </ul>
+ * O cabeçalho e o índice são escritos por {@link #close()}.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    /// BUFFER_SIZE tamanho do buffer de escrita.
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /// Variareis
+    /// channel o canal do ficheiro.
+    /// buffer o buffer de escrita.
+    /// position a posição no ficheiro do próximo byte escrito.
+    /// offsets a posição no ficheiro de cada partida escrita.
+    /// games o número de partidas escritas.
+    /// moves buffer dos movimentos legais da posição atual.
+    /// record a partida a escrever, codificada antes de ser acrescentada ao ficheiro.
+    /// recordLength o número de bytes em `record`.
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long position;
+    private long[] offsets = new long[1024];
+    private int games;
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private byte[] record = new byte[256];
+    private int recordLength;
+
+    /**
+     * Construtor
+     * cria (ou substitui) o ficheiro do arquivo.
+     *
+     * @param path O ficheiro do arquivo.
+     * @throws IOException Se o ficheiro não puder ser criado.
+     */
+    public GameArchiveWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        // o cabeçalho é reescrito no fim, quando o número de partidas e o índice forem conhecidos
+        buffer.put(new byte[GameArchive.HEADER_SIZE]);
+        position = GameArchive.HEADER_SIZE;
+    }
+
+    /**
+     * Method write
+     * Escreve uma partida lida de um ficheiro PGN.
+     *
+     * @param game A partida.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void write(PgnGame game) throws IOException {
+        write(game.getChessMatch(), game.getResult());
+    }
+
+    /**
+     * Method write
+     * Escreve o histórico de movimentos de uma partida
+     * ({@link ChessMatch#getMoveHistory()}), a partir da posição em que começa
+     * ({@link ChessMatch#getInitialFen()}). A partida não é alterada.
+     * <p>
+     * A partida é primeiro codificada num buffer próprio e só é acrescentada ao
+     * arquivo (e ao índice) se for válida: um erro não deixa registos parciais.
+     * Uma partida que faria o arquivo (com o índice) ultrapassar o tamanho que
+     * {@link GameArchive} consegue mapear é recusada, e o arquivo continua válido.
+     *
+     * @param chessMatch A partida.
+     * @param result     O resultado ("1-0", "0-1", "1/2-1/2" ou "*").
+     * @throws IOException              Se a escrita falhar ou o arquivo ficar demasiado grande.
+     * @throws IllegalArgumentException Se o resultado não for válido, a partida for demasiado longa
+     *                                  ou o histórico tiver um movimento que não é legal.
+     */
+    public void write(ChessMatch chessMatch, String result) throws IOException {
+        int code = Arrays.asList(GameArchive.RESULTS).indexOf(result);
+        if (code < 0) {
+            throw new IllegalArgumentException("Invalid game result: " + result);
+        }
+        int[] history = chessMatch.getMoveHistory();
+        if (history.length > 0xFFFF) {
+            throw new IllegalArgumentException("Game too long for the archive: " + history.length + " moves");
+        }
+        String fen = chessMatch.getInitialFen();
+        byte[] fenBytes = ChessMatch.START_FEN.equals(fen) ? new byte[0] : fen.getBytes(StandardCharsets.US_ASCII);
+
+        recordLength = 0;
+        recordByte(code);
+        recordShort(fenBytes.length);
+        for (byte b : fenBytes) {
+            recordByte(b);
+        }
+        recordShort(history.length);
+        // repete a partida para obter o índice de cada movimento na lista de movimentos legais
+        ChessMatch replay = (fenBytes.length == 0) ? new ChessMatch() : new ChessMatch(fen);
+        for (int move : history) {
+            int count = replay.generateLegalMoves(moves);
+            int index = 0;
+            while (index < count && moves[index] != move) {
+                index++;
+            }
+            if (index == count) {
+                throw new IllegalArgumentException("Illegal move in game history: " + Move.toString(move));
+            }
+            recordByte(index);
+            replay.doMove(move);
+        }
+
+        // o ficheiro final tem também o índice, escrito por close()
+        long size = position + recordLength + (games + 1L) * Long.BYTES;
+        if (size > GameArchive.MAX_SIZE) {
+            throw new IOException("Game archive full: " + games + " games, limit " + GameArchive.MAX_SIZE + " bytes");
+        }
+
+        // a partida é válida: acrescenta-a ao índice e ao ficheiro
+        if (games == offsets.length) {
+            offsets = Arrays.copyOf(offsets, games * 2);
+        }
+        offsets[games++] = position;
+        for (int i = 0; i < recordLength; ) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), recordLength - i);
+            buffer.put(record, i, length);
+            i += length;
+        }
+        position += recordLength;
+    }
+
+    /**
+     * @return O número de partidas escritas.
+     */
+    public int size() {
+        return games;
+    }
+
+    /**
+     * Method close
+     * Escreve o índice das partidas e o cabeçalho, e fecha o ficheiro.
+     *
+     * @throws IOException Se a escrita falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < games; i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush();
+                }
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE);
+            header.putInt(GameArchive.MAGIC)
+                    .putShort(GameArchive.VERSION)
+                    .putShort((short) 0)
+                    .putInt(games)
+                    .putLong(indexOffset)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void recordByte(int value) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, recordLength * 2);
+        }
+        record[recordLength++] = (byte) value;
+    }
+
+    private void recordShort(int value) {
+        recordByte(value >>> 8);
+        recordByte(value);
+    }
+
+    /**
+     * Method flush
+     * Escreve o conteúdo do buffer no ficheiro.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.io;
+
+import chess.ChessMatch;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Class PgnGame
+ * <p>
+ * Uma partida lida por {@link PgnReader}: as etiquetas ("tags", e.g., `White`,
+ * `Event`, `FEN`), o resultado e a partida no fim dos movimentos. Os movimentos
+ * ficam no histórico da partida ({@link ChessMatch#getMoveHistory()}).
+ */
+public class PgnGame {
+
+    /// Variareis
+    /// number o número da partida no ficheiro (a partir de 1).
+    /// tags as etiquetas, pela ordem do ficheiro.
+    /// chessMatch a partida, na posição final.
+    /// result o resultado ("1-0", "0-1", "1/2-1/2" ou "*").
+    private final long number;
+    private final Map<String, String> tags;
+    private final ChessMatch chessMatch;
+    private final String result;
+
+    /**
+     * Construtor
+     *
+     * @param number     O número da partida no ficheiro.
+     * @param tags       As etiquetas.
+     * @param chessMatch A partida, na posição final.
+     * @param result     O resultado.
+     */
+    public PgnGame(long number, Map<String, String> tags, ChessMatch chessMatch, String result) {
+        this.number = number;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.chessMatch = chessMatch;
+        this.result = result;
+    }
+
+    /**
+     * Getters
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return O valor da etiqueta, ou `null` se não existir.
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public ChessMatch getChessMatch() {
+        return chessMatch;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return Os movimentos da partida, codificados com {@link chess.Move}.
+     */
+    public int[] getMoves() {
+        return chessMatch.getMoveHistory();
+    }
+}
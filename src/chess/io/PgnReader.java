@@ -0,0 +1,550 @@
+/**
+ * @author Daniel Gil
+ */
+package chess.io;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import chess.PieceType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Class PgnReader
+ * <p>
+ * Leitor de ficheiros PGN ("Portable Game Notation") em fluxo: o ficheiro é lido
+ * por um canal NIO para um buffer de tamanho fixo, e cada partida é entregue a
+ * uma função ({@link #read(Consumer)}) assim que termina, pelo que a memória
+ * utilizada não depende do tamanho do ficheiro.
+ * <p>
+ * O texto é analisado byte a byte, sem criar uma {@link String} por lance: os
+ * lances em notação algébrica (SAN, e.g., "Nbd7", "exd6", "e8=Q+", "O-O-O")
+ * são comparados com os movimentos legais da posição
+ * ({@link ChessMatch#generateLegalMoves(int[])}) e jogados com
+ * {@link ChessMatch#performChessMove(ChessPosition, ChessPosition)}. Os
+ * comentários, as variantes, as anotações numéricas e os números dos lances são
+ * ignorados. Uma etiqueta `FEN` define a posição inicial da partida.
+ * <p>
+ * Uma partida com erros é ignorada sem interromper a leitura das seguintes
+ * ({@link #read(Consumer, Consumer)}, {@link #getSkipped()}).
+ */
+public class PgnReader implements Closeable {
+
+    /// BUFFER_SIZE tamanho do buffer de leitura.
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /// PIECES as letras das peças em SAN, indexadas por [PieceType#ordinal()].
+    private static final String PIECES = "PNBRQK";
+
+    /// Variareis
+    /// channel o canal de onde o texto é lido.
+    /// bytes o buffer de leitura; position e limit delimitam os bytes ainda não lidos.
+    /// token o texto do lance ou da etiqueta atual (reutilizado).
+    /// moves buffer dos movimentos legais da posição atual.
+    /// tags as etiquetas da partida atual.
+    /// chessMatch a partida atual, ou `null` antes do primeiro lance.
+    /// games o número de partidas lidas (incluindo as ignoradas, para numerar as seguintes).
+    /// skipped o número de partidas ignoradas por terem erros.
+    /// skipping indica se o resto da partida atual está a ser ignorado, depois de um erro.
+    /// errorHandler a função que recebe o erro de cada partida ignorada.
+    private final ReadableByteChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    private int limit;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private Map<String, String> tags = new LinkedHashMap<>();
+    private ChessMatch chessMatch;
+    private long games;
+    private long skipped;
+    private boolean skipping;
+    private Consumer<ChessException> errorHandler;
+
+    /**
+     * Construtor
+     *
+     * @param path O ficheiro PGN.
+     * @throws IOException Se o ficheiro não puder ser aberto.
+     */
+    public PgnReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Construtor
+     *
+     * @param channel O canal de onde o texto PGN é lido (é fechado por {@link #close()}).
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Method read
+     * Lê todas as partidas até ao fim do ficheiro, entregando cada uma à função
+     * indicada. Uma partida inválida é ignorada e contada em {@link #getSkipped()}.
+     *
+     * @param handler A função que recebe cada partida.
+     * @return O número de partidas entregues.
+     * @throws IOException Se a leitura falhar.
+     * @see #read(Consumer, Consumer)
+     */
+    public long read(Consumer<PgnGame> handler) throws IOException {
+        return read(handler, e -> { });
+    }
+
+    /**
+     * Method read
+     * Lê todas as partidas até ao fim do ficheiro, entregando cada uma à função
+     * indicada. Uma partida termina no resultado ("1-0", "0-1", "1/2-1/2" ou
+     * "*"); uma partida sem resultado no fim do ficheiro é entregue com "*".
+     * <p>
+     * Uma partida com um lance ilegal, ambíguo ou mal formado, ou com uma
+     * etiqueta `FEN` inválida, não interrompe a leitura: o erro é entregue à
+     * função de erros, o resto da partida é ignorado até ao resultado ou à
+     * próxima etiqueta, e a leitura continua na partida seguinte.
+     *
+     * @param handler      A função que recebe cada partida.
+     * @param errorHandler A função que recebe o erro de cada partida ignorada.
+     * @return O número de partidas entregues.
+     * @throws IOException Se a leitura falhar.
+     */
+    public long read(Consumer<PgnGame> handler, Consumer<ChessException> errorHandler) throws IOException {
+        this.errorHandler = errorHandler;
+        long before = games - skipped;
+        int c;
+        while ((c = next()) != -1) {
+            switch (c) {
+                case '[':
+                    if (skipping) {
+                        skipping = false;
+                    } else if (chessMatch != null) {
+                        // etiquetas depois dos lances: a partida anterior não tinha resultado
+                        emit(handler, "*");
+                    }
+                    readTag();
+                    break;
+                case '{':
+                    skipUntil('}');
+                    break;
+                case ';':
+                case '%':
+                    skipUntil('\n');
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                default:
+                    if (c > ' ' && c != ')') {
+                        readToken(c);
+                        if (skipping) {
+                            skipping = result() == null;
+                        } else {
+                            readMoveText(handler);
+                        }
+                    }
+            }
+        }
+        if (!skipping && (chessMatch != null || !tags.isEmpty())) {
+            emit(handler, "*");
+        }
+        skipping = false;
+        return games - skipped - before;
+    }
+
+    /**
+     * @return O número de partidas ignoradas por terem erros.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Method readMoveText
+     * Interpreta um elemento do texto dos lances: resultado, número do lance,
+     * anotação ("$1", "!?", "e.p.") ou lance em SAN.
+     */
+    private void readMoveText(Consumer<PgnGame> handler) {
+        String result = result();
+        if (result != null) {
+            emit(handler, result);
+            return;
+        }
+        if (token[0] == '$' || token[0] == '!' || token[0] == '?' || enPassantMark(tokenLength) == tokenLength) {
+            return;
+        }
+        // número do lance ("12." ou "12..."), eventualmente colado ao lance ("12.e4");
+        // os algarismos só são um número se forem seguidos de '.' (o roque "0-0" também começa por '0')
+        int start = 0;
+        while (start < tokenLength && token[start] >= '0' && token[start] <= '9') {
+            start++;
+        }
+        if (start == tokenLength) {
+            return;
+        }
+        if (token[start] == '.') {
+            while (start < tokenLength && token[start] == '.') {
+                start++;
+            }
+            if (start == tokenLength) {
+                return;
+            }
+            System.arraycopy(token, start, token, 0, tokenLength - start);
+            tokenLength -= start;
+        }
+        try {
+            playSan();
+        } catch (ChessException e) {
+            skip(e);
+            // o resto da partida é ignorado até ao resultado ou à próxima etiqueta
+            skipping = true;
+        }
+    }
+
+    /**
+     * Method result
+     *
+     * @return O resultado representado pelo elemento atual, ou `null` se não for um resultado.
+     */
+    private String result() {
+        if (tokenLength == 1 && token[0] == '*') {
+            return "*";
+        }
+        if (tokenLength == 3 && token[1] == '-') {
+            if (token[0] == '1' && token[2] == '0') {
+                return "1-0";
+            }
+            if (token[0] == '0' && token[2] == '1') {
+                return "0-1";
+            }
+        }
+        if (tokenLength == 7 && token[0] == '1' && token[1] == '/' && token[2] == '2' && token[3] == '-'
+                && token[4] == '1' && token[5] == '/' && token[6] == '2') {
+            return "1/2-1/2";
+        }
+        return null;
+    }
+
+    /**
+     * Method emit
+     * Entrega a partida atual e prepara a seguinte.
+     */
+    private void emit(Consumer<PgnGame> handler, String result) {
+        if (chessMatch == null) {
+            try {
+                chessMatch = newMatch();
+            } catch (ChessException e) {
+                // partida sem lances com uma etiqueta FEN inválida
+                skip(e);
+                return;
+            }
+        }
+        handler.accept(new PgnGame(++games, tags, chessMatch, result));
+        tags = new LinkedHashMap<>();
+        chessMatch = null;
+    }
+
+    /**
+     * Method skip
+     * Descarta a partida atual, que tem um erro, e entrega o erro à função de erros.
+     */
+    private void skip(ChessException e) {
+        games++;
+        skipped++;
+        tags = new LinkedHashMap<>();
+        chessMatch = null;
+        errorHandler.accept(e);
+    }
+
+    /**
+     * @return Uma partida na posição inicial, ou na posição da etiqueta `FEN`.
+     * @throws ChessException Se a etiqueta `FEN` for inválida.
+     */
+    private ChessMatch newMatch() {
+        String fen = tags.get("FEN");
+        if (fen == null) {
+            return new ChessMatch();
+        }
+        try {
+            return new ChessMatch(fen);
+        } catch (ChessException e) {
+            throw new ChessException(e.getMessage() + " in game " + (games + 1));
+        }
+    }
+
+    /**
+     * Method playSan
+     * Resolve o lance em SAN do elemento atual contra os movimentos legais da
+     * posição e joga-o.
+     *
+     * @throws ChessException Se o lance for ilegal, ambíguo ou mal formado.
+     */
+    private void playSan() {
+        if (chessMatch == null) {
+            chessMatch = newMatch();
+        }
+        int end = tokenLength;
+        // sufixos: xeque, mate, anotações e a marca "en passant" colada ao lance ("exd6e.p.")
+        while (end > 0) {
+            byte c = token[end - 1];
+            int mark = enPassantMark(end);
+            if (c == '+' || c == '#' || c == '!' || c == '?') {
+                end--;
+            } else if (mark > 0 && mark < end && token[end - mark - 1] >= '1' && token[end - mark - 1] <= '8') {
+                end -= mark;
+            } else {
+                break;
+            }
+        }
+        int count = chessMatch.generateLegalMoves(moves);
+        int found = 0;
+
+        if (end > 0 && (token[0] == 'O' || token[0] == '0')) {
+            // roque: "O-O" para o lado do Rei, "O-O-O" para o lado da Dama
+            int column = (end == 3) ? 6 : (end == 5) ? 2 : -1;
+            for (int i = 0; i < count; i++) {
+                if (Move.isCastling(moves[i]) && (Move.to(moves[i]) & 7) == column) {
+                    found = moves[i];
+                }
+            }
+            play(found);
+            return;
+        }
+
+        int start = 0;
+        PieceType type = PieceType.Pawn;
+        if (end > 0 && token[0] != 'P' && PIECES.indexOf(token[0]) > 0) {
+            type = PieceType.of(PIECES.indexOf(token[0]));
+            start = 1;
+        } else if (end > 0 && token[0] == 'P') {
+            start = 1;
+        }
+        PieceType promotion = null;
+        if (type == PieceType.Pawn && end >= 2 && PIECES.indexOf(Character.toUpperCase(token[end - 1])) > 0
+                && (token[end - 2] == '=' || (token[end - 2] >= '1' && token[end - 2] <= '8'))) {
+            promotion = PieceType.of(PIECES.indexOf(Character.toUpperCase(token[end - 1])));
+            end -= (token[end - 2] == '=') ? 2 : 1;
+        }
+        if (end - start < 2) {
+            throw invalidMove();
+        }
+        int toColumn = token[end - 2] - 'a';
+        int toRow = '8' - token[end - 1];
+        if (toColumn < 0 || toColumn > 7 || toRow < 0 || toRow > 7) {
+            throw invalidMove();
+        }
+        // desambiguação: coluna e/ou linha de origem
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            byte c = token[i];
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalidMove();
+            }
+        }
+
+        int to = toRow * 8 + toColumn;
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            PieceType movePromotion = Move.promotion(move);
+            if (Move.to(move) == to && chessMatch.pieceAt(from).getType() == type
+                    && (fromColumn < 0 || (from & 7) == fromColumn)
+                    && (fromRow < 0 || (from >>> 3) == fromRow)
+                    && (movePromotion == promotion || (promotion == null && movePromotion == PieceType.Queen))) {
+                found = move;
+                matches++;
+            }
+        }
+        play((matches == 1) ? found : 0);
+    }
+
+    /**
+     * Method enPassantMark
+     * Reconhece a marca de uma captura "en passant" ("e.p." ou "ep"), que é
+     * ignorada como as anotações.
+     *
+     * @param end O fim do texto do elemento atual a considerar.
+     * @return O número de bytes da marca no fim do texto, ou `0` se não terminar com uma marca.
+     */
+    private int enPassantMark(int end) {
+        if (end >= 4 && token[end - 4] == 'e' && token[end - 3] == '.' && token[end - 2] == 'p' && token[end - 1] == '.') {
+            return 4;
+        }
+        if (end >= 2 && token[end - 2] == 'e' && token[end - 1] == 'p') {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Method play
+     * Joga um movimento resolvido, escolhendo a peça da promoção.
+     *
+     * @throws ChessException Se o movimento não tiver sido resolvido (`0`).
+     */
+    private void play(int move) {
+        if (move == 0) {
+            throw invalidMove();
+        }
+        chessMatch.performChessMove(toChessPosition(Move.from(move)), toChessPosition(Move.to(move)));
+        PieceType promotion = Move.promotion(move);
+        if (promotion != null && promotion != PieceType.Queen) {
+            chessMatch.replacePromotedPiece(String.valueOf(PIECES.charAt(promotion.ordinal())));
+        }
+    }
+
+    private static ChessPosition toChessPosition(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
+    }
+
+    private ChessException invalidMove() {
+        return new ChessException("Illegal or ambiguous move '"
+                + new String(token, 0, tokenLength, StandardCharsets.US_ASCII) + "' in game " + (games + 1));
+    }
+
+    /**
+     * Method readTag
+     * Lê uma etiqueta `[Nome "Valor"]` (o `[` já foi lido). As aspas e as barras
+     * dentro do valor são precedidas de `\`.
+     */
+    private void readTag() throws IOException {
+        int c = skipSpaces();
+        tokenLength = 0;
+        while (c > ' ' && c != '"' && c != ']') {
+            append(c);
+            c = next();
+        }
+        String name = new String(token, 0, tokenLength, StandardCharsets.US_ASCII);
+        if (c != '"') {
+            c = skipSpaces();
+        }
+        tokenLength = 0;
+        if (c == '"') {
+            while ((c = next()) != -1 && c != '"') {
+                if (c == '\\') {
+                    c = next();
+                }
+                append(c);
+            }
+            c = next();
+        }
+        String value = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+        while (c != -1 && c != ']') {
+            c = next();
+        }
+        tags.put(name, value);
+    }
+
+    /**
+     * Method readToken
+     * Lê um elemento do texto dos lances até um espaço ou ao início de um
+     * comentário, variante ou etiqueta (que fica por ler).
+     */
+    private void readToken(int first) throws IOException {
+        tokenLength = 0;
+        append(first);
+        int c;
+        while ((c = next()) > ' ') {
+            if (c == '{' || c == '(' || c == ')' || c == ';' || c == '[') {
+                position--;
+                return;
+            }
+            append(c);
+        }
+    }
+
+    private void append(int c) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, tokenLength * 2);
+        }
+        token[tokenLength++] = (byte) c;
+    }
+
+    /**
+     * Method skipVariation
+     * Ignora uma variante (o `(` já foi lido), incluindo as variantes e
+     * comentários dentro dela.
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = next()) != -1) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipUntil('\n');
+            }
+        }
+    }
+
+    private void skipUntil(int end) throws IOException {
+        int c;
+        do {
+            c = next();
+        } while (c != -1 && c != end);
+    }
+
+    private int skipSpaces() throws IOException {
+        int c;
+        do {
+            c = next();
+        } while (c != -1 && c <= ' ');
+        return c;
+    }
+
+    /**
+     * Method next
+     * Lê o próximo byte, voltando a encher o buffer a partir do canal quando necessário.
+     *
+     * @return O byte (0 a 255), ou `-1` no fim do ficheiro.
+     */
+    private int next() throws IOException {
+        if (position == limit) {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            if (read < 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Method close
+     * Fecha o canal.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -4,9 +4,10 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 /**
  * Representa a peça do Bispo no jogo de xadrez.
@@ -37,63 +38,25 @@ public class Bishop extends ChessPiece {
     }
 
     /**
-     * Retorna uma matriz booleana indicando os movimentos possíveis do Bispo
-     * na sua posição atual.
+     * @return O tipo {@link PieceType#Bishop}.
+     */
+    @Override
+    public PieceType getType() {
+        return PieceType.Bishop;
+    }
+
+    /**
+     * Retorna a máscara dos movimentos possíveis do Bispo na sua posição atual.
      * <p>
-     * O Bispo move-se ao longo das quatro diagonais. O método verifica os
-     * movimentos possíveis em cada uma das quatro direções diagonais, parando
-     * quando encontra o limite do tabuleiro ou outra peça. As casas ocupadas
-     * por peças adversárias também são marcadas como movimentos possíveis
-     * (para captura).
+     * O Bispo move-se ao longo das quatro diagonais, parando quando encontra o
+     * limite do tabuleiro ou outra peça. As casas ocupadas por peças adversárias
+     * também são incluídas (para captura). Os raios são obtidos numa única
+     * consulta a {@link Attacks#bishop(int, long)}.
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para o
-     * Bispo, e `false` caso contrário.
+     * @return A máscara das casas para onde o Bispo se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        // NW
-        p.setValues(position.getRow() - 1, position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // NE
-        p.setValues(position.getRow() - 1, position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SE
-        p.setValues(position.getRow() + 1, position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SW
-        p.setValues(position.getRow() + 1, position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-        return mat;
+    public long possibleMovesMask() {
+        return Attacks.bishop(getSquare(), getBitBoard().occupancy()) & ~getBitBoard().occupancy(getColor());
     }
-}
\ No newline at end of file
+}
@@ -4,10 +4,12 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
-import chess.ChessMatch;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 /**
  * Representa a peça Rei no jogo de xadrez.
@@ -18,31 +20,18 @@ import chess.Color;
  */
 public class King extends ChessPiece {
 
-    /**
-     * Variavel
-     * Dependência para a partida de xadrez atual.
-     * <p>
-     * Esta variável mantém uma referência à instância da classe {@link ChessMatch}
-     * à qual esta peça está associada. Através desta referência, a peça pode
-     * interagir com o estado geral do jogo, como verificar regras específicas
-     * ou acessar informações sobre outros elementos da partida.
-     */
-    private ChessMatch chessMatch;
-
     /// Construtor
     /// inicializa um novo Rei com o tabuleiro
-    /// em que ele está localizado, a sua cor e a partida de xadrez associada.
+    /// em que ele está localizado e a sua cor.
     ///
     /// Chama o construtor da superclasse [ChessPiece] para associar o Rei
-    /// ao tabuleiro e definir a sua cor. Adicionalmente, estabelece uma dependência
-    /// com a instância da partida de xadrez atual ([ChessMatch]).
+    /// ao tabuleiro e definir a sua cor. As casas atacadas (xeque e roque) são
+    /// consultadas diretamente no tabuleiro ([BitBoard#isAttacked(int, Color)]).
     ///
-    /// @param board      O tabuleiro de xadrez onde o Rei será colocado.
-    /// @param color      A cor do Rei ([branco][#WHITE] ou [preto][#BLACK]).
-    /// @param chessMatch A instância da partida de xadrez atual à qual o Rei pertence.
-    public King(Board board, Color color, ChessMatch chessMatch) {
+    /// @param board O tabuleiro de xadrez onde o Rei será colocado.
+    /// @param color A cor do Rei ([branco][#WHITE] ou [preto][#BLACK]).
+    public King(Board board, Color color) {
         super(board, color);
-        this.chessMatch = chessMatch;
     }
 
     /**
@@ -56,125 +45,91 @@ public class King extends ChessPiece {
     }
 
     /**
-     * Metodo CanMove
-     * Verifica se o Rei pode se mover para uma determinada posição.
-     * <p>
-     * O Rei pode se mover para uma casa se ela estiver vazia ou contiver uma
-     * peça adversária.
-     *
-     * @param position A posição de destino a ser verificada.
-     * @return `true` se o Rei puder se mover para a posição; `false` caso contrário
-     * (se a casa estiver ocupada por uma peça da mesma cor).
+     * @return O tipo {@link PieceType#King}.
      */
-    private boolean canMove(Position position) {
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p == null || p.getColor() != getColor();
+    @Override
+    public PieceType getType() {
+        return PieceType.King;
     }
 
     /**
      * Metodo testRookCastling
      * Verifica se uma torre está em uma posição válida para o roque.
      * <p>
-     * Para o roque ser possível, deve haver uma torre na posição especificada,
+     * Para o roque ser possível, deve haver uma torre na casa especificada,
      * da mesma cor do Rei, e que ainda não tenha realizado nenhum movimento.
      *
-     * @param position A posição da possível torre para o roque.
+     * @param square A casa da possível torre para o roque (0 a 63).
      * @return `true` se a torre estiver apta para o roque; `false` caso contrário.
      */
-    private boolean testRookCastling(Position position) {
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
+    private boolean testRookCastling(int square) {
+        ChessPiece p = getBitBoard().pieceAt(square);
+        return p != null && p.getType() == PieceType.Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
     }
 
-    /*** Retorna uma matriz booleana indicando os movimentos possíveis do Rei
-     * na sua posição atual.
+    /**
+     * Retorna a máscara dos movimentos possíveis do Rei na sua posição atual.
      * <p>
-     * Este método sobrescreve o método {@link ChessPiece#possibleMoves()} da
-     * superclasse. O Rei pode se mover uma casa em qualquer direção (horizontal,
-     * vertical ou diagonal). Além disso, verifica a possibilidade de roque (castling)
-     * com as torres, tanto para o lado do rei quanto para o lado da rainha,
-     * desde que as condições para o roque sejam atendidas.
+     * O Rei pode se mover uma casa em qualquer direção (horizontal, vertical ou
+     * diagonal), lida da tabela pré-calculada {@link Attacks#king(int)}. Além
+     * disso, verifica a possibilidade de roque (castling) com as torres, tanto
+     * para o lado do rei quanto para o lado da rainha, desde que as condições
+     * para o roque sejam atendidas: o Rei não pode estar em xeque nem passar por
+     * uma casa atacada ({@link BitBoard#isAttacked(int, Color)}).
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para o Rei,
-     * e `false` caso contrário.
+     * @return A máscara das casas para onde o Rei se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        // Above
-        p.setValues(position.getRow() - 1, position.getColumn());
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Below
-        p.setValues(position.getRow() + 1, position.getColumn());
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Left
-        p.setValues(position.getRow(), position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Right
-        p.setValues(position.getRow(), position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // NW cima esquerda
-        p.setValues(position.getRow() - 1, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // NE cima Direita
-        p.setValues(position.getRow() - 1, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SW Baixo esquerda
-        p.setValues(position.getRow() + 1, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SE baixo Direita
-        p.setValues(position.getRow() + 1, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
+    public long possibleMovesMask() {
+        long mask = Attacks.king(getSquare()) & ~getBitBoard().occupancy(getColor());
 
         // Special move Castling
-        if (getMoveCount() == 0 && !chessMatch.getCheck()) {
+        if (getMoveCount() == 0) {
+            BitBoard board = getBitBoard();
+            int square = getSquare();
+            int column = position.getColumn();
+            long occupied = board.occupancy();
+            Color opponent = (getColor() == Color.White) ? Color.Black : Color.White;
+            if (board.isAttacked(square, opponent)) {
+                return mask;
+            }
             // special move castling kingside rook
-            Position posT1 = new Position(position.getRow(), position.getColumn() + 3);
-            if (testRookCastling(posT1)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-                    mat[position.getRow()][position.getColumn() + 2] = true;
-                }
+            if (column + 3 < 8 && testRookCastling(square + 3) && (occupied & (3L << (square + 1))) == 0
+                    && !board.isAttacked(square + 1, opponent)) {
+                mask |= 1L << (square + 2);
             }
             // special move castling queenside rook
-            Position posT2 = new Position(position.getRow(), position.getColumn() - 4);
-            if (testRookCastling(posT2)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-                Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-                    mat[position.getRow()][position.getColumn() - 2] = true;
-                }
+            if (column - 4 >= 0 && testRookCastling(square - 4) && (occupied & (7L << (square - 3))) == 0
+                    && !board.isAttacked(square - 1, opponent)) {
+                mask |= 1L << (square - 2);
             }
         }
+        return mask;
+    }
 
-        return mat;
+    /**
+     * Method generateMoves
+     * Escreve os movimentos do Rei no buffer, marcando o roque com
+     * {@link Move#CASTLING}.
+     *
+     * @param moves O buffer de movimentos.
+     * @param count O número de movimentos já escritos no buffer.
+     * @return O novo número de movimentos no buffer.
+     */
+    @Override
+    public int generateMoves(int[] moves, int count) {
+        int from = getSquare();
+        long occupied = getBitBoard().occupancy();
+        long mask = possibleMovesMask();
+        while (mask != 0) {
+            int to = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            if (to == from + 2 || to == from - 2) {
+                moves[count++] = Move.of(from, to, Move.CASTLING);
+            } else {
+                moves[count++] = Move.of(from, to, ((occupied >>> to) & 1L) != 0 ? Move.CAPTURE : 0);
+            }
+        }
+        return count;
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,10 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 /**
  * Representa a peça do Cavalo no jogo de xadrez.
@@ -39,87 +40,24 @@ public class Knight extends ChessPiece {
     }
 
     /**
-     * Verifica se o Cavalo pode mover-se para uma determinada posição.
-     * <p>
-     * O Cavalo pode mover-se para uma posição se ela estiver vazia ou contiver
-     * uma peça adversária.
-     *
-     * @param position A {@link Position} de destino potencial.
-     * @return `true` se o Cavalo puder mover-se para a posição, `false` caso
-     * contrário.
+     * @return O tipo {@link PieceType#Knight}.
      */
-    private boolean canMove(Position position) {
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p == null || p.getColor() != getColor();
+    @Override
+    public PieceType getType() {
+        return PieceType.Knight;
     }
 
     /**
-     * Retorna uma matriz booleana indicando os movimentos possíveis do Cavalo
-     * na sua posição atual.
+     * Retorna a máscara dos movimentos possíveis do Cavalo na sua posição atual.
      * <p>
-     * O Cavalo tem oito movimentos possíveis, em forma de "L". O método verifica
-     * cada um desses oito movimentos e marca como `true` na matriz de movimentos
-     * possíveis as casas que estão dentro dos limites do tabuleiro e para as
-     * quais o Cavalo pode se mover (casas vazias ou ocupadas por peças
-     * adversárias).
+     * O Cavalo tem até oito movimentos possíveis, em forma de "L", lidos da
+     * tabela pré-calculada {@link Attacks#knight(int)}. São excluídas as casas
+     * ocupadas por peças da mesma cor.
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para o
-     * Cavalo, e `false` caso contrário.
+     * @return A máscara das casas para onde o Cavalo se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        // Movimento 1: Duas casas acima, uma à esquerda
-        p.setValues(position.getRow() - 2, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 2: Duas casas acima, uma à direita
-        p.setValues(position.getRow() - 2, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 3: Uma casa acima, duas à esquerda
-        p.setValues(position.getRow() - 1, position.getColumn() - 2);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 4: Uma casa acima, duas à direita
-        p.setValues(position.getRow() - 1, position.getColumn() + 2);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 5: Duas casas abaixo, uma à esquerda
-        p.setValues(position.getRow() + 2, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 6: Duas casas abaixo, uma à direita
-        p.setValues(position.getRow() + 2, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 7: Uma casa abaixo, duas à esquerda
-        p.setValues(position.getRow() + 1, position.getColumn() - 2);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Movimento 8: Uma casa abaixo, duas à direita
-        p.setValues(position.getRow() + 1, position.getColumn() + 2);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        return mat;
+    public long possibleMovesMask() {
+        return Attacks.knight(getSquare()) & ~getBitBoard().occupancy(getColor());
     }
-}
\ No newline at end of file
+}
@@ -4,10 +4,13 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 /**
  * Representa a peça do Peão no jogo de xadrez.
@@ -49,102 +52,97 @@ public class Pawn extends ChessPiece {
     }
 
     /**
-     * Retorna uma matriz booleana indicando os movimentos possíveis do Peão
-     * na sua posição atual.
+     * @return O tipo {@link PieceType#Pawn}.
+     */
+    @Override
+    public PieceType getType() {
+        return PieceType.Pawn;
+    }
+
+    /**
+     * Retorna a máscara dos movimentos possíveis do Peão na sua posição atual.
      * <p>
      * Os movimentos possíveis do Peão dependem de sua cor e do estado do jogo.
+     * O avanço e as capturas normais são lidos das tabelas pré-calculadas
+     * {@link Attacks#pawnPush(Color, int)} e {@link Attacks#pawn(Color, int)}.
      * Peões brancos movem-se para frente (diminuindo a linha), e peões pretos
      * movem-se para baixo (aumentando a linha). No primeiro movimento, um peão
      * pode mover-se duas casas para frente. Peões capturam peças adversárias
      * movendo-se uma casa na diagonal. O método também considera o movimento
      * especial "en passant".
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para o
-     * Peão, e `false` caso contrário.
+     * @return A máscara das casas para onde o Peão se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        if (getColor() == Color.White) {
-            // Above 1x
-            p.setValues(position.getRow() - 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
-            }
-            // Above x2 (first move)
-            p.setValues(position.getRow() - 2, position.getColumn());
-            Position p2 = new Position(position.getRow() - 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-                    && !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-                mat[p.getRow()][p.getColumn()] = true;
-            }
-            // Diagonal left (capture)
-            p.setValues(position.getRow() - 1, position.getColumn() - 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
-            }
-            // Diagonal right (capture)
-            p.setValues(position.getRow() - 1, position.getColumn() + 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
-            }
+    public long possibleMovesMask() {
+        BitBoard board = getBitBoard();
+        Color color = getColor();
+        int square = getSquare();
+        long empty = ~board.occupancy();
+        long opponents = board.occupancy() & ~board.occupancy(color);
 
-            // Special move en passant (left)
-            if (position.getRow() == 3) {
-                Position left = new Position(position.getRow(), position.getColumn() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-                        && getBoard().piece(left) == chessMatch.getenPassantVulnerable()) {
-                    mat[left.getRow() - 1][left.getColumn()] = true;
-                }
-                // Special move en passant (right)
-                Position right = new Position(position.getRow(), position.getColumn() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-                        && getBoard().piece(right) == chessMatch.getenPassantVulnerable()) {
-                    mat[right.getRow() - 1][right.getColumn()] = true;
-                }
-            }
+        // Forward 1x, and x2 on the first move
+        long mask = Attacks.pawnPush(color, square) & empty;
+        if (mask != 0 && getMoveCount() == 0) {
+            mask |= Attacks.pawnPush(color, Long.numberOfTrailingZeros(mask)) & empty;
+        }
+        // Diagonal left / right (capture)
+        mask |= Attacks.pawn(color, square) & opponents;
 
-        } else {
-            // Below 1x
-            p.setValues(position.getRow() + 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
-            }
-            // Below x2 (first move)
-            p.setValues(position.getRow() + 2, position.getColumn());
-            Position p2 = new Position(position.getRow() + 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-                    && !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-                mat[p.getRow()][p.getColumn()] = true;
+        // Special move en passant
+        ChessPiece vulnerable = chessMatch.getenPassantVulnerable();
+        if (vulnerable != null && vulnerable.getColor() != color
+                && position.getRow() == ((color == Color.White) ? 3 : 4)) {
+            int column = position.getColumn();
+            int ahead = square + ((color == Color.White) ? -8 : 8);
+            if (column > 0 && board.pieceAt(square - 1) == vulnerable) {
+                mask |= 1L << (ahead - 1);
             }
-            // Diagonal left (capture)
-            p.setValues(position.getRow() + 1, position.getColumn() - 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+            if (column < 7 && board.pieceAt(square + 1) == vulnerable) {
+                mask |= 1L << (ahead + 1);
             }
-            // Diagonal right (capture)
-            p.setValues(position.getRow() + 1, position.getColumn() + 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+        }
+        return mask;
+    }
+
+    /**
+     * Method generateMoves
+     * Escreve os movimentos do Peão no buffer, identificando o avanço de duas
+     * casas, a captura "en passant" e a promoção (um movimento por cada peça
+     * possível: Rainha, Torre, Bispo e Cavalo).
+     *
+     * @param moves O buffer de movimentos.
+     * @param count O número de movimentos já escritos no buffer.
+     * @return O novo número de movimentos no buffer.
+     */
+    @Override
+    public int generateMoves(int[] moves, int count) {
+        int from = getSquare();
+        long occupied = getBitBoard().occupancy();
+        long mask = possibleMovesMask();
+        while (mask != 0) {
+            int to = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            int flags;
+            if (((occupied >>> to) & 1L) != 0) {
+                flags = Move.CAPTURE;
+            } else if ((to & 7) != (from & 7)) {
+                flags = Move.CAPTURE | Move.EN_PASSANT;
+            } else if (to == from + 16 || to == from - 16) {
+                flags = Move.DOUBLE_PAWN_PUSH;
+            } else {
+                flags = 0;
             }
-            // Special move en passant (left)
-            if (position.getRow() == 4) {
-                Position left = new Position(position.getRow(), position.getColumn() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-                        && getBoard().piece(left) == chessMatch.getenPassantVulnerable()) {
-                    mat[left.getRow() + 1][left.getColumn()] = true;
-                }
-                // Special move en passant (right)
-                Position right = new Position(position.getRow(), position.getColumn() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-                        && getBoard().piece(right) == chessMatch.getenPassantVulnerable()) {
-                    mat[right.getRow() + 1][right.getColumn()] = true;
-                }
+            // Special move promotion
+            if (to < 8 || to >= 56) {
+                moves[count++] = Move.of(from, to, flags, PieceType.Queen);
+                moves[count++] = Move.of(from, to, flags, PieceType.Rook);
+                moves[count++] = Move.of(from, to, flags, PieceType.Bishop);
+                moves[count++] = Move.of(from, to, flags, PieceType.Knight);
+            } else {
+                moves[count++] = Move.of(from, to, flags);
             }
         }
-        return mat;
+        return count;
     }
-}
\ No newline at end of file
+}
@@ -5,9 +5,10 @@ package chess.pieces;
 
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 /**
  * Representa a peça da Rainha no jogo de xadrez.
@@ -39,105 +40,26 @@ public class Queen extends ChessPiece {
     }
 
     /**
-     * Retorna uma matriz booleana indicando os movimentos possíveis da Rainha
-     * na sua posição atual.
+     * @return O tipo {@link PieceType#Queen}.
+     */
+    @Override
+    public PieceType getType() {
+        return PieceType.Queen;
+    }
+
+    /**
+     * Retorna a máscara dos movimentos possíveis da Rainha na sua posição atual.
      * <p>
      * A Rainha combina os movimentos da Torre (horizontal e vertical) e do
-     * Bispo (diagonal). O método verifica os movimentos possíveis em oito
-     * direções: acima, abaixo, esquerda, direita e nas quatro diagonais,
-     * parando quando encontra o limite do tabuleiro ou outra peça. As casas
-     * ocupadas por peças adversárias também são marcadas como movimentos
-     * possíveis (para captura).
+     * Bispo (diagonal), parando em cada uma das oito direções quando encontra o
+     * limite do tabuleiro ou outra peça. As casas ocupadas por peças adversárias
+     * também são incluídas (para captura). Os raios são a união das consultas
+     * de Torre e de Bispo ({@link Attacks#queen(int, long)}).
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para a
-     * Rainha, e `false` caso contrário.
+     * @return A máscara das casas para onde a Rainha se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        // Above
-        p.setValues(position.getRow() - 1, position.getColumn());
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Left
-        p.setValues(position.getRow(), position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Right
-        p.setValues(position.getRow(), position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Below
-        p.setValues(position.getRow() + 1, position.getColumn());
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // NW
-        p.setValues(position.getRow() - 1, position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // NE
-        p.setValues(position.getRow() - 1, position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SE
-        p.setValues(position.getRow() + 1, position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // SW
-        p.setValues(position.getRow() + 1, position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        return mat;
+    public long possibleMovesMask() {
+        return Attacks.queen(getSquare(), getBitBoard().occupancy()) & ~getBitBoard().occupancy(getColor());
     }
-}
\ No newline at end of file
+}
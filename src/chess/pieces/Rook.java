@@ -4,9 +4,10 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 /**
  * Representa a peça Torre no jogo de xadrez.
@@ -40,66 +41,26 @@ public class Rook extends ChessPiece {
     }
 
     /**
-     * Method possibleMoves
-     * Retorna uma matriz booleana indicando os movimentos possíveis da Torre
-     * na sua posição atual.
+     * @return O tipo {@link PieceType#Rook}.
+     */
+    @Override
+    public PieceType getType() {
+        return PieceType.Rook;
+    }
+
+    /**
+     * Method possibleMovesMask
+     * Retorna a máscara dos movimentos possíveis da Torre na sua posição atual.
      * <p>
-     * Este método sobrescreve o método {@link ChessPiece#possibleMoves()} da
-     * superclasse. A Torre pode se mover qualquer número de casas horizontalmente
-     * ou verticalmente. O método verifica os movimentos possíveis em quatro direções:
-     * acima, abaixo, esquerda e direita, parando quando encontra o limite do
-     * tabuleiro ou outra peça. As casas ocupadas por peças adversárias também são
-     * marcadas como movimentos possíveis (para captura).
+     * A Torre pode se mover qualquer número de casas horizontalmente ou
+     * verticalmente, parando quando encontra o limite do tabuleiro ou outra peça.
+     * As casas ocupadas por peças adversárias também são incluídas (para captura).
+     * Os raios são obtidos numa única consulta a {@link Attacks#rook(int, long)}.
      *
-     * @return Uma matriz booleana com as mesmas dimensões do tabuleiro, onde
-     * `true` indica que a casa correspondente é um movimento possível para a
-     * Torre, e `false` caso contrário.
+     * @return A máscara das casas para onde a Torre se pode mover.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        // Above
-        p.setValues(position.getRow() - 1, position.getColumn());
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Left
-        p.setValues(position.getRow(), position.getColumn() - 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() - 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Right
-        p.setValues(position.getRow(), position.getColumn() + 1);
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        // Below
-        p.setValues(position.getRow() + 1, position.getColumn());
-        while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() + 1);
-        }
-        if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        return mat;
+    public long possibleMovesMask() {
+        return Attacks.rook(getSquare(), getBitBoard().occupancy()) & ~getBitBoard().occupancy(getColor());
     }
-}
\ No newline at end of file
+}